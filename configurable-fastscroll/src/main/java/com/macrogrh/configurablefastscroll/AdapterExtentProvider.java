@@ -0,0 +1,105 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.OrientationHelper;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Base for providers that know the extent of every adapter item. The scroll offset is derived
+ * from the first attached child, so it is exact as long as the item extents are.
+ */
+abstract class AdapterExtentProvider implements ScrollExtentProvider {
+
+    RecyclerView mRecyclerView;
+
+    private OrientationHelper mOrientationHelper;
+    private RecyclerView.LayoutManager mOrientationLayoutManager;
+    private int mOrientation = RecyclerView.VERTICAL;
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = null;
+        mOrientationHelper = null;
+        mOrientationLayoutManager = null;
+    }
+
+    /**
+     * @return the sum of all item extents.
+     */
+    abstract long getTotalExtent();
+
+    @Override
+    public long computeScrollRange() {
+        OrientationHelper helper = getOrientationHelper();
+        if (helper == null) {
+            return 0;
+        }
+        return getTotalExtent() + helper.getStartAfterPadding() + helper.getEndPadding();
+    }
+
+    @Override
+    public long computeScrollOffset() {
+        OrientationHelper helper = getOrientationHelper();
+        if (helper == null) {
+            return 0;
+        }
+        View firstChild = null;
+        int firstPosition = RecyclerView.NO_POSITION;
+        for (int i = 0, count = mRecyclerView.getChildCount(); i < count; i++) {
+            View child = mRecyclerView.getChildAt(i);
+            int position = mRecyclerView.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION
+                    && (firstPosition == RecyclerView.NO_POSITION || position < firstPosition)) {
+                firstPosition = position;
+                firstChild = child;
+            }
+        }
+        if (firstChild == null) {
+            return 0;
+        }
+        // A horizontal list in a right-to-left layout starts at the right edge.
+        long offset = getOffsetForPosition(firstPosition) + (isMirrored()
+                ? helper.getDecoratedEnd(firstChild) - helper.getEndAfterPadding()
+                : helper.getStartAfterPadding() - helper.getDecoratedStart(firstChild));
+        return Math.max(0, offset);
+    }
+
+    int getItemCount() {
+        if (mRecyclerView == null || mRecyclerView.getAdapter() == null) {
+            return 0;
+        }
+        return mRecyclerView.getAdapter().getItemCount();
+    }
+
+    private boolean isMirrored() {
+        return mOrientation == RecyclerView.HORIZONTAL
+                && ViewCompat.getLayoutDirection(mRecyclerView) == ViewCompat.LAYOUT_DIRECTION_RTL;
+    }
+
+    OrientationHelper getOrientationHelper() {
+        if (mRecyclerView == null || mRecyclerView.getLayoutManager() == null) {
+            return null;
+        }
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        int orientation = layoutManager instanceof LinearLayoutManager
+                ? ((LinearLayoutManager) layoutManager).getOrientation()
+                : RecyclerView.VERTICAL;
+        if (mOrientationHelper == null || mOrientationLayoutManager != layoutManager
+                || mOrientation != orientation) {
+            mOrientationHelper = OrientationHelper.createOrientationHelper(layoutManager,
+                    orientation);
+            mOrientationLayoutManager = layoutManager;
+            mOrientation = orientation;
+        }
+        return mOrientationHelper;
+    }
+}
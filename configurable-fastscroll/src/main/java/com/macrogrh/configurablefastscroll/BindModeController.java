@@ -0,0 +1,75 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Decides when a drag is fast enough for lightweight binding. Binding turns lightweight once the
+ * content moves faster than {@link #FAST_SCREENS_PER_SECOND} and full again when it slows to
+ * half of that, rests for {@link #SETTLE_DELAY_MS} or the drag ends. Settling always runs from a
+ * posted message, after the frame that laid out the landing position.
+ */
+final class BindModeController {
+
+    interface Callback {
+
+        void onLightweightBindStarted();
+
+        void onSettled();
+    }
+
+    static final float FAST_SCREENS_PER_SECOND = 5;
+    static final int SETTLE_DELAY_MS = 100;
+
+    private final Callback mCallback;
+    private final DeadlineScheduler mSettleScheduler;
+    private boolean mLightweight = false;
+
+    BindModeController(Callback callback, DeadlineScheduler.Timer timer) {
+        mCallback = callback;
+        mSettleScheduler = new DeadlineScheduler(new Runnable() {
+            @Override
+            public void run() {
+                settle();
+            }
+        }, timer);
+    }
+
+    boolean isLightweight() {
+        return mLightweight;
+    }
+
+    /**
+     * The drag currently moves the content by {@code screensPerSecond} screens per second.
+     */
+    void onDragSpeed(float screensPerSecond) {
+        if (!mLightweight) {
+            if (screensPerSecond >= FAST_SCREENS_PER_SECOND) {
+                mLightweight = true;
+                mCallback.onLightweightBindStarted();
+                mSettleScheduler.schedule(SETTLE_DELAY_MS);
+            }
+            return;
+        }
+        mSettleScheduler.schedule(screensPerSecond < FAST_SCREENS_PER_SECOND / 2
+                ? 0 : SETTLE_DELAY_MS);
+    }
+
+    void onDragEnded() {
+        if (mLightweight) {
+            mSettleScheduler.schedule(0);
+        }
+    }
+
+    /**
+     * Settles right away; called when the scroller is detached.
+     */
+    void cancel() {
+        mSettleScheduler.cancel();
+        settle();
+    }
+
+    private void settle() {
+        if (mLightweight) {
+            mLightweight = false;
+            mCallback.onSettled();
+        }
+    }
+}
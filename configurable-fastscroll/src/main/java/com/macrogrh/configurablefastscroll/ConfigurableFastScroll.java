@@ -15,27 +15,34 @@
  */
 package com.macrogrh.configurablefastscroll;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
 import android.graphics.Canvas;
-import android.graphics.drawable.Drawable;
+import android.graphics.Rect;
 import android.graphics.drawable.StateListDrawable;
 import android.os.Build;
-import android.util.TypedValue;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.MotionEvent;
+import android.view.View;
+import android.widget.SectionIndexer;
 
 import androidx.annotation.DimenRes;
+import androidx.annotation.DrawableRes;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
-import androidx.core.content.ContextCompat;
 import androidx.core.view.ViewCompat;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 
-import com.macrogrh.configurablefastscroll.R;
+import com.macrogrh.configurablefastscroll.geometry.ThumbGeometry;
 
+import java.io.File;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -68,6 +75,19 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     private static final int DRAG_X = 1;
     private static final int DRAG_Y = 2;
 
+    @IntDef({DRAG_MODE_SCROLL_BY, DRAG_MODE_JUMP, DRAG_MODE_DEFERRED})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface DragMode {
+    }
+
+    // Dragging scrolls the list by the pixel delta of each move
+    public static final int DRAG_MODE_SCROLL_BY = 0;
+    // Dragging jumps straight to the adapter position under the thumb
+    public static final int DRAG_MODE_JUMP = 1;
+    // Dragging only moves the thumb and its preview; the list jumps once the thumb rests or is
+    // released
+    public static final int DRAG_MODE_DEFERRED = 2;
+
     @IntDef({ANIMATION_STATE_OUT, ANIMATION_STATE_FADING_IN, ANIMATION_STATE_IN,
             ANIMATION_STATE_FADING_OUT})
     @Retention(RetentionPolicy.SOURCE)
@@ -79,11 +99,29 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     private static final int ANIMATION_STATE_IN = 2;
     private static final int ANIMATION_STATE_FADING_OUT = 3;
 
-    private static final int SHOW_DURATION_MS = 500;
-    private static final int HIDE_DELAY_AFTER_VISIBLE_MS = 1500;
-    private static final int HIDE_DELAY_AFTER_DRAGGING_MS = 1200;
+    @VisibleForTesting
+    static final int SHOW_DURATION_MS = 500;
+    @VisibleForTesting
+    static final int HIDE_DELAY_AFTER_VISIBLE_MS = 1500;
+    @VisibleForTesting
+    static final int HIDE_DELAY_AFTER_DRAGGING_MS = 1200;
     private static final int HIDE_DURATION_MS = 500;
     private static final int SCROLLBAR_FULL_OPAQUE = 255;
+    // How far ahead of the pointer the drag target is predicted for prefetching
+    private static final int PREFETCH_LOOKAHEAD_MS = 100;
+    // How long the thumb rests before a deferred drag jumps to it
+    @VisibleForTesting
+    static final int DEFERRED_COMMIT_DELAY_MS = 200;
+    private static final long NO_DEFERRED_OFFSET = -1;
+
+    /**
+     * Payload of the rebind of the visible items after lightweight binding, see
+     * {@link OnScrubBindListener}.
+     */
+    public static final Object PAYLOAD_FULL_BIND = new Object();
+
+    private static final String TRACE_DRAW_OVER = "FastScroll#onDrawOver";
+    private static final String TRACE_TOUCH_EVENT = "FastScroll#onTouchEvent";
 
     private static final int[] PRESSED_STATE_SET = new int[]{android.R.attr.state_pressed};
     private static final int[] EMPTY_STATE_SET = new int[]{};
@@ -91,6 +129,56 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     private final int mScrollbarMinimumRange;
     private final int mVerticalMargin;
     private final int mRightMargin;
+    // Thumb and track math along the vertical axis
+    private final ThumbGeometry mGeometry;
+    @DragMode
+    private final int mDragMode;
+    @Nullable
+    private final SectionBubble mSectionBubble;
+    private final int mDragPredictionMs;
+    @Nullable
+    private final DragPrefetcher mDragPrefetcher;
+    @Nullable
+    private final PageRequester mPageRequester;
+    @Nullable
+    private final FastScrollMetricsListener mMetricsListener;
+    // Counters of the current drag; null without a listener, so nothing is collected
+    @Nullable
+    private final FastScrollMetrics mMetrics;
+    // Pre-rendered thumb states, or null to draw the drawable itself
+    @Nullable
+    private final ThumbBitmapCache mThumbCache;
+    @Nullable
+    private final OnScrubBindListener mScrubBindListener;
+    @Nullable
+    private final BindModeController mBindModeController;
+    // Draws the thumb in the RecyclerView's overlay instead of in onDrawOver(), or null
+    @Nullable
+    private final ThumbOverlay mThumbOverlay;
+    // Label of the deferred drag target, drawn next to the thumb, or null
+    @Nullable
+    private final ScrubPreview mScrubPreview;
+    // Offset a deferred drag jumps to once the thumb rests, or NO_DEFERRED_OFFSET
+    private long mDeferredOffset = NO_DEFERRED_OFFSET;
+    private int mDeferredPosition = RecyclerView.NO_POSITION;
+    private final Runnable mCommitDeferredDrag = new Runnable() {
+        @Override
+        public void run() {
+            commitDeferredDrag();
+        }
+    };
+    private DeadlineScheduler mDeferredCommitScheduler =
+            new DeadlineScheduler(mCommitDeferredDrag, DeadlineScheduler.Timer.MAIN);
+    @Nullable
+    private KeyJumper mKeyJumper;
+    private final KeyJumper.Callback mKeyJumperCallback = new KeyJumper.Callback() {
+        @Override
+        public void onKeyResolved(int position) {
+            if (mRecyclerView != null) {
+                scrollToPosition(position, 0);
+            }
+        }
+    };
 
     // Final values for the vertical scroll bar
     private final StateListDrawable mVerticalThumbDrawable;
@@ -103,75 +191,238 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     int mVerticalThumbCenterY;
     @VisibleForTesting
     float mVerticalDragY;
+    // Distance from the thumb center to the point where the drag started
+    private float mVerticalGrabOffset;
 
-    // Dynamic values for the horizontal scroll bar
+    // Final values for the horizontal scroll bar, all null or 0 without one
+    @VisibleForTesting
+    @Nullable
+    final StateListDrawable mHorizontalThumbDrawable;
+    @Nullable
+    private final ScrollExtentProvider mHorizontalExtentProvider;
+    // Thumb and track math along the horizontal axis, measured from the start edge
+    @Nullable
+    private final ThumbGeometry mHorizontalGeometry;
+    private final int mHorizontalThumbHeight;
+
+    // Dynamic values for the horizontal scroll bar, from the start edge in RTL layouts too
+    @VisibleForTesting
+    int mHorizontalThumbWidth;
     @VisibleForTesting
     int mHorizontalThumbCenterX;
     @VisibleForTesting
     float mHorizontalDragX;
+    private float mHorizontalGrabOffset;
 
     private int mRecyclerViewWidth = 0;
     private int mRecyclerViewHeight = 0;
 
     private RecyclerView mRecyclerView;
+    private final ScrollExtentProvider mExtentProvider;
     /**
      * Whether the document is long/wide enough to require scrolling. If not, we don't show the
      * relevant scroller.
      */
     private boolean mNeedVerticalScrollbar = false;
+    private boolean mNeedHorizontalScrollbar = false;
 
     @State
     private int mState = STATE_HIDDEN;
     @DragState
     private int mDragState = DRAG_NONE;
 
-    private final int[] mVerticalRange = new int[2];
-    private final int[] mHorizontalRange = new int[2];
-    private final ValueAnimator mShowHideAnimator = ValueAnimator.ofFloat(0, 1);
+    // Fades are driven by the shared engine; only their range and timing are kept here.
+    private FastScrollEngine mEngine = FastScrollEngine.getInstance();
+    private float mShowHideFrom = 0;
+    private float mShowHideTo = 0;
+    private float mShowHideValue = 0;
+    private int mShowHideDuration = 0;
+    private long mShowHideStartTime = -1;
+    private int mThumbAlpha = SCROLLBAR_FULL_OPAQUE;
+
+    // What the last requestRedraw() invalidated, to skip redundant invalidations
+    private final Rect mThumbBounds = new Rect();
+    private final Rect mInvalidatedThumbBounds = new Rect();
+    private final Rect mHorizontalThumbBounds = new Rect();
+    private int mInvalidatedThumbAlpha = 0;
+    private boolean mThumbDrawableStateChanged = false;
+    private boolean mSectionBubbleInvalidated = false;
     @AnimationState
     private int mAnimationState = ANIMATION_STATE_OUT;
-    private final Runnable mHideRunnable = new Runnable() {
+    private final FastScrollEngine.Client mEngineClient = new FastScrollEngine.Client() {
         @Override
-        public void run() {
+        public boolean doAnimationFrame(long frameTimeMillis) {
+            return animateShowHide(frameTimeMillis);
+        }
+
+        @Override
+        public void onHideDeadline() {
             hide(HIDE_DURATION_MS);
         }
     };
+    private FrameScheduler mFrameScheduler = FrameScheduler.CHOREOGRAPHER;
+    private final DragPredictor mDragPredictor = new DragPredictor();
+    private boolean mDragFramePending = false;
+    // Applies the latest pointer position once per vsync, however many moves arrived.
+    private final Choreographer.FrameCallback mDragFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mDragFramePending = false;
+            if (mDragState == DRAG_X) {
+                if (mMetrics != null) {
+                    mMetrics.onMovesApplied(frameTimeNanos / 1000000);
+                }
+                applyHorizontalDrag(mDragPredictionMs > 0
+                        ? mDragPredictor.predict(mDragPredictionMs)
+                        : mDragPredictor.getLatest());
+            } else if (mDragState == DRAG_Y) {
+                if (mMetrics != null) {
+                    mMetrics.onMovesApplied(frameTimeNanos / 1000000);
+                }
+                applyVerticalDrag(mDragPredictionMs > 0
+                        ? mDragPredictor.predict(mDragPredictionMs)
+                        : mDragPredictor.getLatest());
+                // A deferred drag lays nothing out until it commits, so there is no window to
+                // prefetch for yet.
+                if (mDragPrefetcher != null && mDragMode != DRAG_MODE_DEFERRED) {
+                    prefetchDragTarget();
+                }
+                if (mBindModeController != null && mDragMode != DRAG_MODE_DEFERRED) {
+                    mBindModeController.onDragSpeed(computeDragSpeed());
+                }
+            }
+        }
+    };
+    // Item a jump drag rests on, shifted by adapter changes arriving during the drag
+    private final DragAnchor mDragAnchor = new DragAnchor(new Runnable() {
+        @Override
+        public void run() {
+            if (mDragState == DRAG_Y) {
+                postDragFrame();
+            }
+        }
+    });
+    // Set by every scroll callback and consumed once per frame in onDrawOver()
+    private boolean mScrollPositionDirty = false;
     private final RecyclerView.OnScrollListener
             mOnScrollListener = new RecyclerView.OnScrollListener() {
         @Override
         public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
-            updateScrollPosition(recyclerView.computeHorizontalScrollOffset(),
-                    recyclerView.computeVerticalScrollOffset());
+            if (mPaused) {
+                return;
+            }
+            // A scroll always invalidates the RecyclerView, so the geometry is recomputed when
+            // it draws, however many scroll callbacks arrived in between.
+            mScrollPositionDirty = true;
         }
     };
 
-
-    ConfigurableFastScroll(RecyclerView recyclerView, StateListDrawable verticalThumbDrawable,
-                           float thumbHeight, float thumbTopBottomMargin, float thumbRightMargin) {
-
-        recyclerView.setVerticalScrollBarEnabled(false);
-        mVerticalThumbDrawable = verticalThumbDrawable;
-
-        if (thumbHeight > 0) {
-            mThumbHeight = thumbHeight;
-        } else {
-            mThumbHeight = mVerticalThumbDrawable.getIntrinsicHeight();
+    // While paused, nothing is scheduled and every callback returns right away.
+    private boolean mPaused = false;
+    private boolean mLifecycleStopped = false;
+    private boolean mDetachedFromWindow = false;
+    @Nullable
+    private Lifecycle mLifecycle;
+    private final LifecycleEventObserver mLifecycleObserver = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                bindToLifecycle(null);
+                attachToRecyclerView(null);
+                return;
+            }
+            mLifecycleStopped =
+                    !source.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+            updatePaused();
         }
+    };
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener =
+            new View.OnAttachStateChangeListener() {
+                @Override
+                public void onViewAttachedToWindow(View v) {
+                    mDetachedFromWindow = false;
+                    updatePaused();
+                }
 
-        mRightMargin = (int) thumbRightMargin;
-
-        mMinimumThumbTouchArea = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 50, recyclerView.getResources().getDisplayMetrics());
+                @Override
+                public void onViewDetachedFromWindow(View v) {
+                    mDetachedFromWindow = true;
+                    updatePaused();
+                }
+            };
 
-        mVerticalThumbWidth = (int) (verticalThumbDrawable.getIntrinsicWidth() / (float) verticalThumbDrawable.getIntrinsicHeight() * mThumbHeight);
 
-        mScrollbarMinimumRange = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 50, recyclerView.getResources().getDisplayMetrics());
+    ConfigurableFastScroll(RecyclerView recyclerView, FastScrollStyle style,
+                           ScrollExtentProvider extentProvider, @DragMode int dragMode,
+                           @Nullable SectionBubble sectionBubble, int dragPredictionMs,
+                           @Nullable DragPrefetcher dragPrefetcher,
+                           @Nullable PageRequester pageRequester,
+                           @Nullable FastScrollMetricsListener metricsListener,
+                           @Nullable ThumbBitmapCache thumbCache,
+                           @Nullable OnScrubBindListener scrubBindListener,
+                           boolean thumbOverlay,
+                           @Nullable ScrollExtentProvider horizontalExtentProvider,
+                           @Nullable ScrubPreview scrubPreview) {
 
-        mVerticalMargin = (int) thumbTopBottomMargin;
+        recyclerView.setVerticalScrollBarEnabled(false);
+        mVerticalThumbDrawable = style.newThumbDrawable(recyclerView.getResources());
+        mExtentProvider = extentProvider;
+        mDragMode = dragMode;
+        mSectionBubble = sectionBubble;
+        mDragPredictionMs = dragPredictionMs;
+        mDragPrefetcher = dragPrefetcher;
+        mPageRequester = pageRequester;
+        mMetricsListener = metricsListener;
+        mMetrics = metricsListener != null ? new FastScrollMetrics() : null;
+        mThumbCache = thumbCache;
+        mScrubPreview = scrubPreview;
+        mScrubBindListener = scrubBindListener;
+        mBindModeController = scrubBindListener == null ? null : new BindModeController(
+                new BindModeController.Callback() {
+                    @Override
+                    public void onLightweightBindStarted() {
+                        mScrubBindListener.onLightweightBindStarted();
+                    }
+
+                    @Override
+                    public void onSettled() {
+                        rebindVisibleItems();
+                    }
+                }, DeadlineScheduler.Timer.MAIN);
+
+        // Everything derived from resources was resolved by the style.
+        mThumbHeight = style.mThumbHeight;
+        mRightMargin = style.mRightMargin;
+        mMinimumThumbTouchArea = style.mMinimumTouchTarget;
+        mVerticalThumbWidth = style.mThumbWidth;
+        mScrollbarMinimumRange = style.mMinimumScrollbarRange;
+        mVerticalMargin = style.mTopBottomMargin;
+
+        mGeometry = new ThumbGeometry(mThumbHeight, mVerticalThumbWidth, mVerticalMargin,
+                mRightMargin, mMinimumThumbTouchArea);
+
+        mHorizontalExtentProvider = horizontalExtentProvider;
+        if (horizontalExtentProvider != null) {
+            recyclerView.setHorizontalScrollBarEnabled(false);
+            FastScrollStyle.HorizontalThumb horizontalThumb =
+                    style.getHorizontalThumb(recyclerView.getContext());
+            mHorizontalThumbDrawable = horizontalThumb.newDrawable(recyclerView.getResources());
+            mHorizontalThumbDrawable.setAlpha(SCROLLBAR_FULL_OPAQUE);
+            mHorizontalThumbHeight = horizontalThumb.mHeight;
+            // Along the horizontal axis the width of the thumb is its length.
+            mHorizontalGeometry = new ThumbGeometry(horizontalThumb.mWidth,
+                    mHorizontalThumbHeight, horizontalThumb.mLeftRightMargin,
+                    horizontalThumb.mBottomMargin, mMinimumThumbTouchArea);
+        } else {
+            mHorizontalThumbDrawable = null;
+            mHorizontalThumbHeight = 0;
+            mHorizontalGeometry = null;
+        }
 
         mVerticalThumbDrawable.setAlpha(SCROLLBAR_FULL_OPAQUE);
-
-        mShowHideAnimator.addListener(new ConfigurableFastScroll.AnimatorListener());
-        mShowHideAnimator.addUpdateListener(new ConfigurableFastScroll.AnimatorUpdater());
+        // The overlay needs ViewGroupOverlay; older releases fall back to the decoration.
+        mThumbOverlay = thumbOverlay && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+                ? new ThumbOverlay(recyclerView.getContext(), mVerticalThumbDrawable) : null;
 
         attachToRecyclerView(recyclerView);
     }
@@ -190,26 +441,238 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     }
 
     private void setupCallbacks() {
+        mExtentProvider.onAttachedToRecyclerView(mRecyclerView);
+        if (mHorizontalExtentProvider != null) {
+            mHorizontalExtentProvider.onAttachedToRecyclerView(mRecyclerView);
+        }
         mRecyclerView.addItemDecoration(this);
         mRecyclerView.addOnItemTouchListener(this);
         mRecyclerView.addOnScrollListener(mOnScrollListener);
+        mRecyclerView.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        if (mThumbOverlay != null) {
+            mThumbOverlay.attach(mRecyclerView);
+        }
+        if (mSectionBubble != null) {
+            mSectionBubble.attachToRecyclerView(mRecyclerView);
+        }
+        if (mDragPrefetcher != null) {
+            mDragPrefetcher.attachToRecyclerView(mRecyclerView);
+        }
+        if (mKeyJumper != null) {
+            mKeyJumper.attachToRecyclerView(mRecyclerView);
+        }
     }
 
     private void destroyCallbacks() {
         mRecyclerView.removeItemDecoration(this);
         mRecyclerView.removeOnItemTouchListener(this);
         mRecyclerView.removeOnScrollListener(mOnScrollListener);
-        cancelHide();
+        mRecyclerView.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        mExtentProvider.onDetachedFromRecyclerView(mRecyclerView);
+        if (mHorizontalExtentProvider != null) {
+            mHorizontalExtentProvider.onDetachedFromRecyclerView(mRecyclerView);
+        }
+        if (mThumbOverlay != null) {
+            mThumbOverlay.detach();
+        }
+        if (mSectionBubble != null) {
+            mSectionBubble.detachFromRecyclerView();
+        }
+        if (mDragPrefetcher != null) {
+            mDragPrefetcher.detachFromRecyclerView();
+        }
+        if (mKeyJumper != null) {
+            mKeyJumper.detachFromRecyclerView();
+        }
+        if (mThumbCache != null) {
+            mThumbCache.release();
+        }
+        stopScheduledWork();
+        mDetachedFromWindow = false;
+        mPaused = mLifecycleStopped;
     }
 
+    /**
+     * Fully detaches when {@code owner} is destroyed and stays idle while it is stopped: the
+     * fade, hide deadline, drag frames and page loads are cancelled and the thumb is hidden. The
+     * same happens while the RecyclerView is detached from its window.
+     */
+    public void bindToLifecycle(@Nullable LifecycleOwner owner) {
+        if (mLifecycle != null) {
+            mLifecycle.removeObserver(mLifecycleObserver);
+            mLifecycle = null;
+        }
+        mLifecycleStopped = false;
+        if (owner != null) {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                attachToRecyclerView(null);
+                return;
+            }
+            mLifecycle = owner.getLifecycle();
+            mLifecycleStopped =
+                    !mLifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+            mLifecycle.addObserver(mLifecycleObserver);
+        }
+        updatePaused();
+    }
+
+    private void updatePaused() {
+        boolean paused = mLifecycleStopped || mDetachedFromWindow;
+        if (paused == mPaused) {
+            return;
+        }
+        mPaused = paused;
+        if (paused && mRecyclerView != null) {
+            if (mState != STATE_HIDDEN) {
+                mDragState = DRAG_NONE;
+                setState(STATE_HIDDEN);
+            }
+            stopScheduledWork();
+        }
+    }
+
+    /**
+     * Cancels everything posted on behalf of this scroller, so that no queue or shared engine
+     * keeps a reference to it, and leaves the thumb hidden.
+     */
+    private void stopScheduledWork() {
+        cancelDragFrame();
+        mDeferredCommitScheduler.cancel();
+        mDeferredOffset = NO_DEFERRED_OFFSET;
+        mDragAnchor.observe(null);
+        mEngine.remove(mEngineClient);
+        mAnimationState = ANIMATION_STATE_OUT;
+        mShowHideValue = 0;
+        if (mThumbOverlay != null) {
+            mThumbOverlay.reset();
+        }
+        if (mDragPrefetcher != null) {
+            mDragPrefetcher.cancel();
+        }
+        if (mPageRequester != null) {
+            mPageRequester.cancel();
+        }
+        if (mBindModeController != null) {
+            mBindModeController.cancel();
+        }
+    }
+
+    /**
+     * Enables {@link #jumpToKey(long)} for an adapter sorted by the keys {@code extractor}
+     * returns.
+     */
+    public void setKeyExtractor(@Nullable KeyExtractor extractor) {
+        if (mKeyJumper != null && mRecyclerView != null) {
+            mKeyJumper.detachFromRecyclerView();
+        }
+        mKeyJumper = extractor != null ? new KeyJumper(extractor, mKeyJumperCallback) : null;
+        if (mKeyJumper != null && mRecyclerView != null) {
+            mKeyJumper.attachToRecyclerView(mRecyclerView);
+        }
+    }
+
+    /**
+     * Jumps to the first item whose key is at least {@code key}. The first call after the
+     * adapter changes samples its keys in the background and jumps when that is done.
+     *
+     * @throws IllegalStateException if no {@link KeyExtractor} was set.
+     */
+    public void jumpToKey(long key) {
+        if (mKeyJumper == null) {
+            throw new IllegalStateException("setKeyExtractor() must be called first");
+        }
+        mKeyJumper.jumpTo(key);
+    }
+
+    /**
+     * Invalidates the list, or nothing at all if neither the thumbs' bounds nor their quantised
+     * alpha changed since the last request. Only skipping pays off: under hardware acceleration,
+     * which is on by default since API 14, dirty rects have been ignored since API 21.
+     */
     private void requestRedraw() {
-        mRecyclerView.invalidate();
+        if (mRecyclerView == null) {
+            // A fade can still finish after the scroller has been detached.
+            return;
+        }
+        boolean sectionBubbleVisible = (mSectionBubble != null || mScrubPreview != null)
+                && mState == STATE_DRAGGING && mDragState == DRAG_Y;
+        if (mThumbOverlay != null) {
+            updateThumbOverlay();
+            if (mHorizontalGeometry == null) {
+                if (sectionBubbleVisible || mSectionBubbleInvalidated) {
+                    mRecyclerView.invalidate();
+                }
+                mSectionBubbleInvalidated = sectionBubbleVisible;
+                return;
+            }
+        }
+        boolean visible = mAnimationState != ANIMATION_STATE_OUT && mThumbAlpha > 0;
+        mThumbBounds.setEmpty();
+        if (visible && mNeedVerticalScrollbar && mThumbOverlay == null) {
+            getVerticalThumbBounds(mThumbBounds);
+        }
+        if (visible && mNeedHorizontalScrollbar) {
+            // The horizontal thumb is always drawn as a decoration.
+            getHorizontalThumbBounds(mHorizontalThumbBounds);
+            mThumbBounds.union(mHorizontalThumbBounds);
+        }
+        int alpha = visible && !mThumbBounds.isEmpty() ? mThumbAlpha : 0;
+        if (!mThumbDrawableStateChanged && !sectionBubbleVisible && !mSectionBubbleInvalidated
+                && alpha == mInvalidatedThumbAlpha
+                && mThumbBounds.equals(mInvalidatedThumbBounds)) {
+            return;
+        }
+        mThumbDrawableStateChanged = false;
+
+        // The bubble's size depends on its label; repaint while it is shown. Otherwise the list
+        // draws no thumb while only the overlay's thumb changes.
+        if (sectionBubbleVisible || mSectionBubbleInvalidated || !mThumbBounds.isEmpty()
+                || !mInvalidatedThumbBounds.isEmpty()) {
+            mRecyclerView.invalidate();
+        }
+        mSectionBubbleInvalidated = sectionBubbleVisible;
+        mInvalidatedThumbAlpha = alpha;
+        mInvalidatedThumbBounds.set(mThumbBounds);
+    }
+
+    private void updateThumbOverlay() {
+        boolean visible = mAnimationState != ANIMATION_STATE_OUT && mNeedVerticalScrollbar;
+        if (visible) {
+            getVerticalThumbBounds(mThumbBounds);
+        }
+        mThumbOverlay.update(visible, mThumbBounds);
+    }
+
+    private void getVerticalThumbBounds(Rect outBounds) {
+        int left = mRecyclerViewWidth - mVerticalThumbWidth - mRightMargin;
+        int top = mVerticalThumbCenterY - (mVerticalThumbHeight / 2);
+        outBounds.set(left, top, left + mVerticalThumbWidth, top + mVerticalThumbHeight);
+    }
+
+    @VisibleForTesting
+    void getHorizontalThumbBounds(Rect outBounds) {
+        int start = mHorizontalThumbCenterX - (mHorizontalThumbWidth / 2);
+        int left = isLayoutRTL() ? mRecyclerViewWidth - start - mHorizontalThumbWidth : start;
+        int top = mHorizontalGeometry.getThumbCrossStart();
+        outBounds.set(left, top, left + mHorizontalThumbWidth, top + mHorizontalThumbHeight);
     }
 
     private void setState(@State int state) {
         if (state == STATE_DRAGGING && mState != STATE_DRAGGING) {
-            mVerticalThumbDrawable.setState(PRESSED_STATE_SET);
+            if (mDragState == DRAG_X) {
+                mHorizontalThumbDrawable.setState(PRESSED_STATE_SET);
+            } else {
+                mVerticalThumbDrawable.setState(PRESSED_STATE_SET);
+            }
+            mThumbDrawableStateChanged = true;
             cancelHide();
+            if (mPageRequester != null) {
+                mPageRequester.onScrubStarted();
+            }
+            if (mDragMode == DRAG_MODE_JUMP && mDragState == DRAG_Y) {
+                mDragAnchor.observe(mRecyclerView.getAdapter());
+                anchorToFirstVisibleItem();
+            }
         }
 
         if (state == STATE_HIDDEN) {
@@ -220,11 +683,29 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
 
         if (mState == STATE_DRAGGING && state != STATE_DRAGGING) {
             mVerticalThumbDrawable.setState(EMPTY_STATE_SET);
+            if (mHorizontalThumbDrawable != null) {
+                mHorizontalThumbDrawable.setState(EMPTY_STATE_SET);
+            }
+            mThumbDrawableStateChanged = true;
+            mDragAnchor.observe(null);
+            if (mPageRequester != null) {
+                mPageRequester.onScrubEnded();
+            }
+            if (mMetrics != null) {
+                mMetrics.end(SystemClock.uptimeMillis());
+                mMetricsListener.onDragSessionFinished(mMetrics);
+            }
+            if (mBindModeController != null) {
+                mBindModeController.onDragEnded();
+            }
             resetHideDelay(HIDE_DELAY_AFTER_DRAGGING_MS);
         } else if (state == STATE_VISIBLE) {
             resetHideDelay(HIDE_DELAY_AFTER_VISIBLE_MS);
         }
         mState = state;
+        if (mThumbDrawableStateChanged) {
+            requestRedraw();
+        }
     }
 
     private boolean isLayoutRTL() {
@@ -234,14 +715,9 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     public void show() {
         switch (mAnimationState) {
             case ANIMATION_STATE_FADING_OUT:
-                mShowHideAnimator.cancel();
-                // fall through
             case ANIMATION_STATE_OUT:
                 mAnimationState = ANIMATION_STATE_FADING_IN;
-                mShowHideAnimator.setFloatValues((float) mShowHideAnimator.getAnimatedValue(), 1);
-                mShowHideAnimator.setDuration(SHOW_DURATION_MS);
-                mShowHideAnimator.setStartDelay(0);
-                mShowHideAnimator.start();
+                startShowHide(1, SHOW_DURATION_MS);
                 break;
         }
     }
@@ -254,32 +730,113 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     void hide(int duration) {
         switch (mAnimationState) {
             case ANIMATION_STATE_FADING_IN:
-                mShowHideAnimator.cancel();
-                // fall through
             case ANIMATION_STATE_IN:
                 mAnimationState = ANIMATION_STATE_FADING_OUT;
-                mShowHideAnimator.setFloatValues((float) mShowHideAnimator.getAnimatedValue(), 0);
-                mShowHideAnimator.setDuration(duration);
-                mShowHideAnimator.start();
+                startShowHide(0, duration);
                 break;
         }
     }
 
+    /**
+     * Fades from the current value to {@code to}, restarting any fade in progress.
+     */
+    private void startShowHide(float to, int duration) {
+        if (mThumbOverlay != null) {
+            mThumbOverlay.fadeTo(to, duration, mOverlayFadeEndAction);
+            if (mHorizontalGeometry == null) {
+                mShowHideTo = to;
+                requestRedraw();
+                return;
+            }
+            // The list still draws the horizontal thumb, which fades along on the engine.
+        }
+        mShowHideFrom = mShowHideValue;
+        mShowHideTo = to;
+        mShowHideDuration = duration;
+        // Taken from the first frame, like an animator's start time.
+        mShowHideStartTime = -1;
+        mEngine.startAnimating(mEngineClient);
+    }
+
+    private boolean animateShowHide(long frameTimeMillis) {
+        if (mShowHideStartTime < 0) {
+            mShowHideStartTime = frameTimeMillis;
+        }
+        float fraction = mShowHideDuration <= 0 ? 1 : Math.min(1f,
+                (frameTimeMillis - mShowHideStartTime) / (float) mShowHideDuration);
+        // The curve of ValueAnimator's default AccelerateDecelerateInterpolator
+        float interpolated = (float) (Math.cos((fraction + 1) * Math.PI) / 2) + 0.5f;
+        mShowHideValue = mShowHideFrom + (mShowHideTo - mShowHideFrom) * interpolated;
+        int alpha = (int) (SCROLLBAR_FULL_OPAQUE * mShowHideValue);
+        if (alpha != mThumbAlpha) {
+            mThumbAlpha = alpha;
+            if (mThumbOverlay == null) {
+                // The overlay fades its own view instead.
+                mVerticalThumbDrawable.setAlpha(alpha);
+            }
+            if (mHorizontalThumbDrawable != null) {
+                mHorizontalThumbDrawable.setAlpha(alpha);
+            }
+            requestRedraw();
+        }
+        if (fraction < 1) {
+            return true;
+        }
+        if (mThumbOverlay == null) {
+            // Otherwise the overlay's fade finishes it.
+            finishShowHide();
+        }
+        return false;
+    }
+
+    private final Runnable mOverlayFadeEndAction = new Runnable() {
+        @Override
+        public void run() {
+            mShowHideValue = mShowHideTo;
+            finishShowHide();
+        }
+    };
+
+    private void finishShowHide() {
+        if (mShowHideValue == 0) {
+            mAnimationState = ANIMATION_STATE_OUT;
+            setState(STATE_HIDDEN);
+        } else {
+            mAnimationState = ANIMATION_STATE_IN;
+            requestRedraw();
+        }
+    }
+
     private void cancelHide() {
-        mRecyclerView.removeCallbacks(mHideRunnable);
+        mEngine.cancelHide(mEngineClient);
     }
 
     private void resetHideDelay(int delay) {
-        cancelHide();
-        mRecyclerView.postDelayed(mHideRunnable, delay);
+        mEngine.scheduleHide(mEngineClient, delay);
     }
 
     @Override
     public void onDrawOver(Canvas canvas, RecyclerView parent, RecyclerView.State state) {
+        Trace.beginSection(TRACE_DRAW_OVER);
+        try {
+            drawOver(canvas);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void drawOver(Canvas canvas) {
+        if (mPaused) {
+            return;
+        }
         if (mRecyclerViewWidth != mRecyclerView.getWidth()
                 || mRecyclerViewHeight != mRecyclerView.getHeight()) {
             mRecyclerViewWidth = mRecyclerView.getWidth();
             mRecyclerViewHeight = mRecyclerView.getHeight();
+            mGeometry.setViewSize(mRecyclerViewWidth, mRecyclerViewHeight);
+            if (mHorizontalGeometry != null) {
+                mHorizontalGeometry.setViewSize(mRecyclerViewHeight, mRecyclerViewWidth);
+            }
             // This is due to the different events ordering when keyboard is opened or
             // retracted vs rotate. Hence to avoid corner cases we just disable the
             // scroller when size changed, and wait until the scroll position is recomputed
@@ -288,51 +845,162 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
             return;
         }
 
+        if (mMetrics != null && mState == STATE_DRAGGING) {
+            mMetrics.onFrame(SystemClock.uptimeMillis(), findFirstVisiblePosition());
+        }
+
+        if (mScrollPositionDirty) {
+            mScrollPositionDirty = false;
+            updateScrollPosition(mExtentProvider.computeScrollOffset());
+        }
+
+        if (mThumbOverlay != null) {
+            // Only moves the overlay's thumb; the list is not drawn again for it.
+            updateThumbOverlay();
+        }
         if (mAnimationState != ANIMATION_STATE_OUT) {
+            if (mNeedHorizontalScrollbar) {
+                drawHorizontalScrollbar(canvas);
+            }
             if (mNeedVerticalScrollbar) {
-                drawVerticalScrollbar(canvas);
+                if (mThumbOverlay == null) {
+                    drawVerticalScrollbar(canvas);
+                }
+                if (mState == STATE_DRAGGING && mDragState == DRAG_Y) {
+                    drawDragLabel(canvas);
+                }
             }
         }
     }
 
+    /**
+     * Draws the app's preview of a deferred drag target, or else the section bubble for the
+     * target or the first visible item.
+     */
+    private void drawDragLabel(Canvas canvas) {
+        int thumbLeft = mRecyclerViewWidth - mVerticalThumbWidth - mRightMargin;
+        if (mScrubPreview != null) {
+            mScrubPreview.draw(canvas, mDeferredPosition, thumbLeft, mVerticalThumbCenterY,
+                    mRecyclerViewHeight);
+        } else if (mSectionBubble != null) {
+            mSectionBubble.draw(canvas, mDragMode == DRAG_MODE_DEFERRED
+                            ? mDeferredPosition : findFirstVisiblePosition(),
+                    thumbLeft, mVerticalThumbCenterY, mRecyclerViewHeight);
+        }
+    }
+
+    private int findFirstVisiblePosition() {
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+        }
+        if (mRecyclerView.getChildCount() == 0) {
+            return RecyclerView.NO_POSITION;
+        }
+        return mRecyclerView.getChildAdapterPosition(mRecyclerView.getChildAt(0));
+    }
+
+    private int findLastVisiblePosition() {
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        }
+        int last = RecyclerView.NO_POSITION;
+        for (int i = 0, count = mRecyclerView.getChildCount(); i < count; i++) {
+            last = Math.max(last,
+                    mRecyclerView.getChildAdapterPosition(mRecyclerView.getChildAt(i)));
+        }
+        return last;
+    }
+
+    /**
+     * Ends lightweight binding: tells the listener which items are visible and rebinds them once.
+     */
+    private void rebindVisibleItems() {
+        int first = RecyclerView.NO_POSITION;
+        int last = RecyclerView.NO_POSITION;
+        RecyclerView.Adapter<?> adapter = null;
+        if (mRecyclerView != null) {
+            first = findFirstVisiblePosition();
+            last = findLastVisiblePosition();
+            adapter = mRecyclerView.getAdapter();
+        }
+        if (first == RecyclerView.NO_POSITION || last < first) {
+            first = RecyclerView.NO_POSITION;
+            last = RecyclerView.NO_POSITION;
+        }
+        mScrubBindListener.onLightweightBindFinished(first, last);
+        if (adapter != null && first != RecyclerView.NO_POSITION) {
+            adapter.notifyItemRangeChanged(first, last - first + 1, PAYLOAD_FULL_BIND);
+        }
+    }
+
     private void drawVerticalScrollbar(Canvas canvas) {
         int viewWidth = mRecyclerViewWidth;
 
         int left = viewWidth - mVerticalThumbWidth - mRightMargin;
         int top = mVerticalThumbCenterY - (mVerticalThumbHeight / 2);
 
-        mVerticalThumbDrawable.setBounds(0, 0, mVerticalThumbWidth, mVerticalThumbHeight);
+        if (mThumbCache != null) {
+            mThumbCache.draw(canvas, mVerticalThumbDrawable, left, top, mVerticalThumbWidth,
+                    mVerticalThumbHeight, mState == STATE_DRAGGING, mThumbAlpha,
+                    mRecyclerView.getResources().getDisplayMetrics().densityDpi);
+            return;
+        }
 
-        canvas.translate(left, 0);
-        canvas.translate(0, top);
+        // Positioned through its bounds rather than canvas translations; setBounds() is a no-op
+        // while the thumb has not moved.
+        mVerticalThumbDrawable.setBounds(left, top, left + mVerticalThumbWidth,
+                top + mVerticalThumbHeight);
         mVerticalThumbDrawable.draw(canvas);
-        canvas.translate(-left, -top);
+    }
+
+    private void drawHorizontalScrollbar(Canvas canvas) {
+        getHorizontalThumbBounds(mHorizontalThumbBounds);
+        mHorizontalThumbDrawable.setBounds(mHorizontalThumbBounds);
+        mHorizontalThumbDrawable.draw(canvas);
     }
 
     /**
      * Notify the scroller of external change of the scroll, e.g. through dragging or flinging on
      * the view itself.
      *
-     * @param offsetX The new scroll X offset.
      * @param offsetY The new scroll Y offset.
      */
-    void updateScrollPosition(int offsetX, int offsetY) {
-        int verticalContentLength = mRecyclerView.computeVerticalScrollRange();
+    void updateScrollPosition(long offsetY) {
+        long verticalContentLength = mExtentProvider.computeScrollRange();
         int verticalVisibleLength = mRecyclerViewHeight;
-        mNeedVerticalScrollbar = verticalContentLength - verticalVisibleLength > 0 && mRecyclerViewHeight >= mScrollbarMinimumRange;
-        mNeedVerticalScrollbar = true;
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        mNeedVerticalScrollbar = (layoutManager == null || layoutManager.canScrollVertically())
+                && verticalContentLength - verticalVisibleLength > 0
+                && mRecyclerViewHeight >= mScrollbarMinimumRange;
+        long horizontalContentLength = 0;
+        mNeedHorizontalScrollbar = false;
+        if (mHorizontalGeometry != null && layoutManager != null
+                && layoutManager.canScrollHorizontally()) {
+            horizontalContentLength = mHorizontalExtentProvider.computeScrollRange();
+            mNeedHorizontalScrollbar = horizontalContentLength - mRecyclerViewWidth > 0
+                    && mRecyclerViewWidth >= mScrollbarMinimumRange;
+        }
 
-        if (!mNeedVerticalScrollbar) {
+        if (!mNeedVerticalScrollbar && !mNeedHorizontalScrollbar) {
             if (mState != STATE_HIDDEN) {
                 setState(STATE_HIDDEN);
             }
             return;
         }
 
-        if (mNeedVerticalScrollbar) {
-            mVerticalThumbHeight = (int) Math.min(verticalVisibleLength, mThumbHeight);
-            float ratioOffsetY = offsetY / (float) (verticalContentLength - verticalVisibleLength);
-            mVerticalThumbCenterY = (int) ((int) (ratioOffsetY * (verticalVisibleLength - mThumbHeight - (2 * mVerticalMargin))) + mThumbHeight / 2 + mVerticalMargin);
+        // In a jump or deferred drag the dragged thumb follows the finger; the list follows the
+        // thumb.
+        boolean jumpDrag = mState == STATE_DRAGGING && mDragMode != DRAG_MODE_SCROLL_BY;
+        if (mNeedVerticalScrollbar && !(jumpDrag && mDragState == DRAG_Y)) {
+            mVerticalThumbHeight = mGeometry.getThumbLength();
+            mVerticalThumbCenterY = mGeometry.computeThumbCenter(offsetY, verticalContentLength);
+        }
+        if (mNeedHorizontalScrollbar && !(jumpDrag && mDragState == DRAG_X)) {
+            mHorizontalThumbWidth = mHorizontalGeometry.getThumbLength();
+            mHorizontalThumbCenterX = mHorizontalGeometry.computeThumbCenter(
+                    mHorizontalExtentProvider.computeScrollOffset(), horizontalContentLength);
         }
 
         if (mState == STATE_HIDDEN || mState == STATE_VISIBLE) {
@@ -344,19 +1012,11 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     public boolean onInterceptTouchEvent(@NonNull RecyclerView recyclerView,
                                          @NonNull MotionEvent ev) {
         final boolean handled;
-        if (mState == STATE_VISIBLE) {
-            boolean insideVerticalThumb = isPointInsideVerticalThumb(ev.getX(), ev.getY());
-            if (ev.getAction() == MotionEvent.ACTION_DOWN && (insideVerticalThumb)) {
-                if (insideVerticalThumb) {
-                    mDragState = DRAG_Y;
-                    mVerticalDragY = (int) ev.getY();
-                }
-
-                setState(STATE_DRAGGING);
-                handled = true;
-            } else {
-                handled = false;
-            }
+        if (mPaused) {
+            handled = false;
+        } else if (mState == STATE_VISIBLE) {
+            handled = ev.getActionMasked() == MotionEvent.ACTION_DOWN
+                    && startDragIfInsideThumb(ev);
         } else if (mState == STATE_DRAGGING) {
             handled = true;
         } else {
@@ -367,30 +1027,167 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
 
     @Override
     public void onTouchEvent(@NonNull RecyclerView recyclerView, @NonNull MotionEvent me) {
-        if (mState == STATE_HIDDEN) {
+        if (mState == STATE_HIDDEN || mPaused) {
             return;
         }
 
-        if (me.getAction() == MotionEvent.ACTION_DOWN) {
-            boolean insideVerticalThumb = isPointInsideVerticalThumb(me.getX(), me.getY());
-            if (insideVerticalThumb) {
-                mDragState = DRAG_Y;
-                mVerticalDragY = (int) me.getY();
-                setState(STATE_DRAGGING);
+        Trace.beginSection(TRACE_TOUCH_EVENT);
+        try {
+            handleTouchEvent(me);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void handleTouchEvent(MotionEvent me) {
+        int action = me.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            startDragIfInsideThumb(me);
+        } else if ((action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)
+                && mState == STATE_DRAGGING) {
+            boolean cancelled = action == MotionEvent.ACTION_CANCEL;
+            if (mDragFramePending) {
+                cancelDragFrame();
+                // Land exactly where the finger was lifted, without prediction. A cancelled drag
+                // stays where the last frame left it.
+                if (!cancelled && mDragState == DRAG_X) {
+                    applyHorizontalDrag(toHorizontalAlong(me.getX()));
+                } else if (!cancelled && mDragState == DRAG_Y) {
+                    applyVerticalDrag(me.getY());
+                }
+            }
+            if (mDragMode == DRAG_MODE_DEFERRED) {
+                if (cancelled) {
+                    mDeferredCommitScheduler.cancel();
+                    mDeferredOffset = NO_DEFERRED_OFFSET;
+                } else {
+                    commitDeferredDrag();
+                }
+            }
+            if (mDragPrefetcher != null) {
+                mDragPrefetcher.cancel();
             }
-        } else if (me.getAction() == MotionEvent.ACTION_UP && mState == STATE_DRAGGING) {
             mVerticalDragY = 0;
             mHorizontalDragX = 0;
             setState(STATE_VISIBLE);
             mDragState = DRAG_NONE;
-        } else if (me.getAction() == MotionEvent.ACTION_MOVE && mState == STATE_DRAGGING) {
+            if (cancelled && mDragMode == DRAG_MODE_DEFERRED) {
+                // The list never followed the thumb; put the thumb back.
+                updateScrollPosition(mExtentProvider.computeScrollOffset());
+                requestRedraw();
+            }
+        } else if (action == MotionEvent.ACTION_MOVE && mState == STATE_DRAGGING) {
             show();
-            if (mDragState == DRAG_X) {
-                horizontalScrollTo(me.getX());
+            if (mDragState == DRAG_X || mDragState == DRAG_Y) {
+                boolean horizontal = mDragState == DRAG_X;
+                int historySize = me.getHistorySize();
+                for (int i = 0; i < historySize; i++) {
+                    mDragPredictor.addSample(me.getHistoricalEventTime(i), horizontal
+                            ? toHorizontalAlong(me.getHistoricalX(i)) : me.getHistoricalY(i));
+                }
+                mDragPredictor.addSample(me.getEventTime(),
+                        horizontal ? toHorizontalAlong(me.getX()) : me.getY());
+                if (mMetrics != null) {
+                    mMetrics.onMove(historySize > 0
+                            ? me.getHistoricalEventTime(0) : me.getEventTime());
+                }
+                postDragFrame();
             }
-            if (mDragState == DRAG_Y) {
-                verticalScrollTo(me.getY());
+        }
+    }
+
+    /**
+     * Starts dragging the thumb under {@code down}, the vertical one where both overlap.
+     *
+     * @return whether a thumb was hit.
+     */
+    private boolean startDragIfInsideThumb(MotionEvent down) {
+        if (mNeedVerticalScrollbar && isPointInsideVerticalThumb(down.getX(), down.getY())) {
+            mDragState = DRAG_Y;
+            mVerticalDragY = (int) down.getY();
+            mVerticalGrabOffset = down.getY() - mVerticalThumbCenterY;
+            if (mDragMode == DRAG_MODE_DEFERRED) {
+                mDeferredOffset = NO_DEFERRED_OFFSET;
+                mDeferredPosition = findFirstVisiblePosition();
+                if (mScrubPreview != null) {
+                    mScrubPreview.clear();
+                }
             }
+            startDrag(down, down.getY());
+            return true;
+        }
+        if (mNeedHorizontalScrollbar && isPointInsideHorizontalThumb(down.getX(), down.getY())) {
+            float x = toHorizontalAlong(down.getX());
+            mDragState = DRAG_X;
+            mHorizontalDragX = x;
+            mHorizontalGrabOffset = x - mHorizontalThumbCenterX;
+            startDrag(down, x);
+            return true;
+        }
+        return false;
+    }
+
+    private void startDrag(MotionEvent down, float pointer) {
+        mDragPredictor.reset();
+        mDragPredictor.addSample(down.getEventTime(), pointer);
+        if (mMetrics != null) {
+            Display display = ViewCompat.getDisplay(mRecyclerView);
+            mMetrics.begin(down.getEventTime(), display != null ? display.getRefreshRate() : 0);
+        }
+        setState(STATE_DRAGGING);
+    }
+
+    @VisibleForTesting
+    void setFrameScheduler(FrameScheduler frameScheduler) {
+        cancelDragFrame();
+        mFrameScheduler = frameScheduler;
+    }
+
+    @VisibleForTesting
+    void setEngine(FastScrollEngine engine) {
+        mEngine.remove(mEngineClient);
+        mEngine = engine;
+    }
+
+    @VisibleForTesting
+    void setDeferredCommitTimer(DeadlineScheduler.Timer timer) {
+        mDeferredCommitScheduler.cancel();
+        mDeferredCommitScheduler = new DeadlineScheduler(mCommitDeferredDrag, timer);
+    }
+
+    private void postDragFrame() {
+        if (!mDragFramePending) {
+            mDragFramePending = true;
+            mFrameScheduler.postFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    private void cancelDragFrame() {
+        if (mDragFramePending) {
+            mDragFramePending = false;
+            mFrameScheduler.removeFrameCallback(mDragFrameCallback);
+        }
+    }
+
+    private void applyVerticalDrag(float y) {
+        if (mDragMode == DRAG_MODE_DEFERRED) {
+            verticalPreviewTo(y);
+        } else if (mDragMode == DRAG_MODE_JUMP) {
+            if (mDragAnchor.consumeMoved()) {
+                reanchorDrag();
+            }
+            verticalJumpTo(y);
+        } else {
+            verticalScrollTo(y);
+        }
+    }
+
+    private void applyHorizontalDrag(float x) {
+        // A deferred drag of the horizontal thumb has no preview, so it jumps right away.
+        if (mDragMode == DRAG_MODE_SCROLL_BY) {
+            horizontalScrollTo(x);
+        } else {
+            horizontalJumpTo(x);
         }
     }
 
@@ -399,194 +1196,588 @@ public class ConfigurableFastScroll extends RecyclerView.ItemDecoration implemen
     }
 
     private void verticalScrollTo(float y) {
-        final int[] scrollbarRange = getVerticalRange();
         if (Math.abs(mVerticalThumbCenterY - y) < 2) {
             return;
         }
-        int scrollingBy = scrollTo(mVerticalDragY, y, scrollbarRange,
-                mRecyclerView.computeVerticalScrollRange(),
-                mRecyclerView.computeVerticalScrollOffset(), mRecyclerViewHeight - mVerticalThumbHeight);
+        int scrollingBy = mGeometry.computeDragScrollDelta(mVerticalDragY, y,
+                mExtentProvider.computeScrollRange(), mExtentProvider.computeScrollOffset());
 
         if (scrollingBy != 0) {
             mRecyclerView.scrollBy(0, scrollingBy);
+            if (mMetrics != null) {
+                mMetrics.onScrollBy(scrollingBy);
+            }
         }
         mVerticalDragY = y;
     }
 
-    private void horizontalScrollTo(float x) {
-        final int[] scrollbarRange = getHorizontalRange();
-        x = Math.max(scrollbarRange[0], Math.min(scrollbarRange[1], x));
-        if (Math.abs(mHorizontalThumbCenterX - x) < 2) {
+    /**
+     * Maps the thumb under {@code y} to an absolute scroll offset and jumps there, so the cost of
+     * a move does not depend on how many items it skips.
+     */
+    private void verticalJumpTo(float y) {
+        float thumbCenter = mGeometry.computeThumbCenterForPointer(y, mVerticalGrabOffset);
+        if (thumbCenter < 0 || (int) thumbCenter == mVerticalThumbCenterY) {
             return;
         }
+        mVerticalThumbCenterY = (int) thumbCenter;
+        mVerticalDragY = y;
 
-        int scrollingBy = scrollTo(mHorizontalDragX, x, scrollbarRange,
-                mRecyclerView.computeHorizontalScrollRange(),
-                mRecyclerView.computeHorizontalScrollOffset(), mRecyclerViewWidth);
-        if (scrollingBy != 0) {
-            mRecyclerView.scrollBy(scrollingBy, 0);
+        int position = jumpToOffset(mGeometry.computeScrollOffset(thumbCenter,
+                mExtentProvider.computeScrollRange()));
+        if (mPageRequester != null) {
+            mPageRequester.onTarget(position,
+                    position + Math.max(1, mRecyclerView.getChildCount()) - 1);
         }
+        requestRedraw();
+    }
 
-        mHorizontalDragX = x;
+    /**
+     * Moves the thumb under {@code y} and only records where the list should go; nothing is laid
+     * out until the thumb rests for {@link #DEFERRED_COMMIT_DELAY_MS} or is released.
+     */
+    private void verticalPreviewTo(float y) {
+        float thumbCenter = mGeometry.computeThumbCenterForPointer(y, mVerticalGrabOffset);
+        if (thumbCenter < 0 || (int) thumbCenter == mVerticalThumbCenterY) {
+            return;
+        }
+        mVerticalThumbCenterY = (int) thumbCenter;
+        mVerticalDragY = y;
+        mDeferredOffset = mGeometry.computeScrollOffset(thumbCenter,
+                mExtentProvider.computeScrollRange());
+        mDeferredPosition = mExtentProvider.getPositionForOffset(mDeferredOffset);
+        mDeferredCommitScheduler.schedule(DEFERRED_COMMIT_DELAY_MS);
+        requestRedraw();
     }
 
-    private int scrollTo(float oldDragPos, float newDragPos, int[] scrollbarRange, int scrollRange,
-                         int scrollOffset, int viewLength) {
-        int scrollbarLength = scrollbarRange[1] - scrollbarRange[0];
-        if (scrollbarLength == 0) {
-            return 0;
+    /**
+     * Jumps to the target of a deferred drag, if it moved since the last jump.
+     */
+    private void commitDeferredDrag() {
+        mDeferredCommitScheduler.cancel();
+        if (mDeferredOffset == NO_DEFERRED_OFFSET || mRecyclerView == null) {
+            return;
         }
-        float percentage = ((newDragPos - oldDragPos) / (float) scrollbarLength);
-        int totalPossibleOffset = scrollRange - viewLength;
-        int scrollingBy = (int) (percentage * totalPossibleOffset);
-        int absoluteOffset = scrollOffset + scrollingBy;
-        if (absoluteOffset < totalPossibleOffset) {
-            return scrollingBy;
-        } else {
+        long offset = mDeferredOffset;
+        mDeferredOffset = NO_DEFERRED_OFFSET;
+        int position = jumpToOffset(offset);
+        if (mPageRequester != null) {
+            mPageRequester.onTarget(position,
+                    position + Math.max(1, mRecyclerView.getChildCount()) - 1);
+        }
+    }
+
+    /**
+     * @return how fast the drag moves the content, in screens per second.
+     */
+    private float computeDragSpeed() {
+        int thumbTravel = mGeometry.getThumbTravel();
+        if (thumbTravel <= 0 || mRecyclerViewHeight == 0) {
             return 0;
         }
+        float contentPerThumbPixel =
+                (mExtentProvider.computeScrollRange() - mRecyclerViewHeight) / (float) thumbTravel;
+        return Math.abs(mDragPredictor.getVelocity()) * contentPerThumbPixel * 1000
+                / mRecyclerViewHeight;
     }
 
-    @VisibleForTesting
-    boolean isPointInsideVerticalThumb(float x, float y) {
-        boolean checkY;
+    /**
+     * Hands the window the thumb is heading for to the prefetcher. Windows next to the current
+     * one are left to RecyclerView's own prefetching.
+     */
+    private void prefetchDragTarget() {
+        float velocity = mDragPredictor.getVelocity();
+        if (velocity == 0) {
+            return;
+        }
+        float thumbCenter = mGeometry.computeThumbCenterForPointer(
+                mDragPredictor.predict(PREFETCH_LOOKAHEAD_MS), mVerticalGrabOffset);
+        if (thumbCenter < 0) {
+            return;
+        }
+        int position = mExtentProvider.getPositionForOffset(
+                mGeometry.computeScrollOffset(thumbCenter, mExtentProvider.computeScrollRange()));
+        if (Math.abs(position - findFirstVisiblePosition()) <= mRecyclerView.getChildCount()) {
+            mDragPrefetcher.cancel();
+            return;
+        }
+        mDragPrefetcher.prefetch(position, velocity > 0 ? 1 : -1);
+    }
 
-        if (mVerticalThumbHeight >= mMinimumThumbTouchArea) {
-            checkY = y >= mVerticalThumbCenterY - mVerticalThumbHeight / 2
-                    && y <= mVerticalThumbCenterY + mVerticalThumbHeight / 2;
-        } else {
-            checkY = y >= mVerticalThumbCenterY - mMinimumThumbTouchArea / 2
-                    && y <= mVerticalThumbCenterY + mMinimumThumbTouchArea / 2;
+    /**
+     * @return the adapter position now at the top of the list.
+     */
+    private int jumpToOffset(long offset) {
+        if (mMetrics != null) {
+            mMetrics.onJump(offset - mExtentProvider.computeScrollOffset());
         }
+        int position = mExtentProvider.getPositionForOffset(offset);
+        int intraItemOffset = (int) (offset - mExtentProvider.getOffsetForPosition(position));
+        scrollToPosition(position, intraItemOffset);
+        mDragAnchor.set(position, intraItemOffset);
+        return position;
+    }
 
-        if (mVerticalThumbWidth >= mMinimumThumbTouchArea) {
-            return x >= mRecyclerViewWidth - mVerticalThumbWidth - mRightMargin
-                    && x <= mRecyclerViewWidth - mRightMargin
-                    && checkY;
-        } else {
-            return x >= mRecyclerViewWidth - mMinimumThumbTouchArea - mRightMargin + (mMinimumThumbTouchArea - mVerticalThumbWidth) / 2
-                    && x <= mRecyclerViewWidth - mRightMargin + (mMinimumThumbTouchArea - mVerticalThumbWidth) / 2
-                    && checkY;
+    private void anchorToFirstVisibleItem() {
+        int position = findFirstVisiblePosition();
+        if (position != RecyclerView.NO_POSITION) {
+            mDragAnchor.set(position, (int) (mExtentProvider.computeScrollOffset()
+                    - mExtentProvider.getOffsetForPosition(position)));
         }
     }
 
     /**
-     * Gets the (min, max) vertical positions of the vertical scroll bar.
+     * Puts the thumb where the anchored item sits after the adapter changes of the last frame and
+     * the list back on that item, so the content under the finger stays put and the next moves
+     * continue from there. Runs at most once per frame, however many changes arrived.
      */
-    private int[] getVerticalRange() {
-        mVerticalRange[0] = mVerticalMargin;
-        mVerticalRange[1] = mRecyclerViewHeight - mVerticalMargin;
-        return mVerticalRange;
+    private void reanchorDrag() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView.getAdapter();
+        int position = Math.min(mDragAnchor.getPosition(),
+                adapter == null ? 0 : adapter.getItemCount() - 1);
+        if (position < 0) {
+            return;
+        }
+        int intraItemOffset = mDragAnchor.getOffset();
+        mVerticalThumbCenterY = mGeometry.computeThumbCenter(
+                mExtentProvider.getOffsetForPosition(position) + intraItemOffset,
+                mExtentProvider.computeScrollRange());
+        mVerticalGrabOffset = mDragPredictor.getLatest() - mVerticalThumbCenterY;
+        // A jump not laid out yet still names the old position of the item.
+        scrollToPosition(position, intraItemOffset);
+        mDragAnchor.set(position, intraItemOffset);
+        requestRedraw();
+    }
+
+    private void scrollToPosition(int position, int intraItemOffset) {
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layoutManager).scrollToPositionWithOffset(position,
+                    -intraItemOffset);
+        } else if (layoutManager != null) {
+            layoutManager.scrollToPosition(position);
+        }
     }
 
     /**
-     * Gets the (min, max) horizontal positions of the horizontal scroll bar.
+     * @param x the pointer, measured from the start edge like the horizontal thumb.
      */
-    private int[] getHorizontalRange() {
-        mHorizontalRange[0] = 0;
-        mHorizontalRange[1] = mRecyclerViewWidth;
-        return mHorizontalRange;
+    private void horizontalScrollTo(float x) {
+        int scrollingBy = mHorizontalGeometry.computeDragScrollDelta(mHorizontalDragX, x,
+                mHorizontalExtentProvider.computeScrollRange(),
+                mHorizontalExtentProvider.computeScrollOffset());
+        if (scrollingBy != 0) {
+            // Scrolling towards the end moves the content left in an RTL layout.
+            scrollingBy = isLayoutRTL() ? -scrollingBy : scrollingBy;
+            mRecyclerView.scrollBy(scrollingBy, 0);
+            if (mMetrics != null) {
+                mMetrics.onScrollBy(scrollingBy);
+            }
+        }
+        mHorizontalDragX = x;
+    }
+
+    /**
+     * Horizontal counterpart of {@link #verticalJumpTo(float)}.
+     */
+    private void horizontalJumpTo(float x) {
+        float thumbCenter = mHorizontalGeometry.computeThumbCenterForPointer(x,
+                mHorizontalGrabOffset);
+        if (thumbCenter < 0 || (int) thumbCenter == mHorizontalThumbCenterX) {
+            return;
+        }
+        mHorizontalThumbCenterX = (int) thumbCenter;
+        mHorizontalDragX = x;
+
+        long offset = mHorizontalGeometry.computeScrollOffset(thumbCenter,
+                mHorizontalExtentProvider.computeScrollRange());
+        if (mMetrics != null) {
+            mMetrics.onJump(offset - mHorizontalExtentProvider.computeScrollOffset());
+        }
+        int position = mHorizontalExtentProvider.getPositionForOffset(offset);
+        scrollToPosition(position,
+                (int) (offset - mHorizontalExtentProvider.getOffsetForPosition(position)));
+        requestRedraw();
+    }
+
+    /**
+     * @return {@code x} measured from the start edge of the RecyclerView.
+     */
+    private float toHorizontalAlong(float x) {
+        return isLayoutRTL() ? mRecyclerViewWidth - x : x;
+    }
+
+    @VisibleForTesting
+    boolean isPointInsideVerticalThumb(float x, float y) {
+        return mGeometry.isInsideThumb(x, y, mVerticalThumbCenterY);
+    }
+
+    @VisibleForTesting
+    boolean isPointInsideHorizontalThumb(float x, float y) {
+        return mHorizontalGeometry.isInsideThumb(y, toHorizontalAlong(x),
+                mHorizontalThumbCenterX);
     }
 
     public static class Builder {
         private final RecyclerView recyclerview;
-        private float thumbHeight;
-        private float thumbTopBottomMargin = 0;
-        private float thumbRightMargin = 0;
-        private int thumbDrawable = R.drawable.thumb_drawable_default;
-        private int thumbTint = 0;
+        // Collects the look unless a prepared style is given
+        private final FastScrollStyle.Builder styleBuilder;
+        private FastScrollStyle style;
+        private ScrollExtentProvider extentProvider;
+        private ScrollExtentProvider horizontalExtentProvider;
+        private ScrubPreviewProvider scrubPreviewProvider;
+        @DragMode
+        private int dragMode = DRAG_MODE_SCROLL_BY;
+        private boolean dragModeSet = false;
+        private SectionIndexer sectionIndexer;
+        private int dragPredictionMs = 0;
+        private boolean dragPrefetch = false;
+        private OnDragPrefetchListener dragPrefetchListener;
+        private PagedDataSource pagedDataSource;
+        private FastScrollMetricsListener metricsListener;
+        private boolean thumbBitmapCache = false;
+        private boolean thumbOverlay = false;
+        private KeyExtractor keyExtractor;
+        private OnScrubBindListener scrubBindListener;
+        private LifecycleOwner lifecycleOwner;
 
         public Builder(RecyclerView recyclerview) {
             this.recyclerview = recyclerview;
+            this.styleBuilder = new FastScrollStyle.Builder(recyclerview.getContext());
         }
 
         public Builder setThumbDrawable(int thumb_drawable) {
-            this.thumbDrawable = thumb_drawable;
+            styleBuilder.setThumbDrawable(thumb_drawable);
             return this;
         }
 
-        public RecyclerView.ItemDecoration build() {
-
-            Drawable drawable = ContextCompat.getDrawable(recyclerview.getContext(), thumbDrawable);
-
-            StateListDrawable stateListDrawable;
-            try {
-                stateListDrawable = (StateListDrawable) drawable;
-            } catch (ClassCastException e) {
-                e.printStackTrace();
-                stateListDrawable = new StateListDrawable();
-                stateListDrawable.addState(new int[]{}, drawable);
+        public ConfigurableFastScroll build() {
+            FastScrollStyle style = this.style != null ? this.style : styleBuilder.build();
+            @DragMode int resolvedDragMode = resolveDragMode();
+            ConfigurableFastScroll fastScroll = new ConfigurableFastScroll(recyclerview,
+                    style,
+                    extentProvider != null ? extentProvider : new RecyclerViewExtentProvider(),
+                    resolvedDragMode,
+                    sectionIndexer != null
+                            ? style.newSectionBubble(sectionIndexer, recyclerview.getResources())
+                            : null,
+                    dragPredictionMs,
+                    dragPrefetch || dragPrefetchListener != null
+                            ? new DragPrefetcher(dragPrefetchListener) : null,
+                    pagedDataSource != null
+                            ? new PageRequester(pagedDataSource, DeadlineScheduler.Timer.MAIN)
+                            : null,
+                    metricsListener,
+                    thumbBitmapCache
+                            ? new ThumbBitmapCache(style.mThumbDrawableRes, style.mThumbTint)
+                            : null,
+                    scrubBindListener,
+                    thumbOverlay,
+                    horizontalExtentProvider,
+                    scrubPreviewProvider != null && resolvedDragMode == DRAG_MODE_DEFERRED
+                            ? style.newScrubPreview(scrubPreviewProvider,
+                            recyclerview.getResources())
+                            : null
+            );
+            if (keyExtractor != null) {
+                fastScroll.setKeyExtractor(keyExtractor);
+            }
+            if (lifecycleOwner != null) {
+                fastScroll.bindToLifecycle(lifecycleOwner);
             }
+            return fastScroll;
+        }
 
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                if (stateListDrawable != null && thumbTint != 0) {
-                    stateListDrawable.setTint(thumbTint);
-                }
+        /**
+         * An explicit {@link #setDragMode(int)} wins, whatever order the setters were called in.
+         * Otherwise a scrub preview drags in {@link #DRAG_MODE_DEFERRED}, a paged or grid list in
+         * {@link #DRAG_MODE_JUMP}, and anything else in {@link #DRAG_MODE_SCROLL_BY}.
+         */
+        @DragMode
+        private int resolveDragMode() {
+            if (dragModeSet) {
+                return dragMode;
+            }
+            if (scrubPreviewProvider != null) {
+                return DRAG_MODE_DEFERRED;
             }
+            if (pagedDataSource != null || extentProvider instanceof GridExtentProvider) {
+                return DRAG_MODE_JUMP;
+            }
+            return DRAG_MODE_SCROLL_BY;
+        }
 
-            return new ConfigurableFastScroll(recyclerview,
-                    stateListDrawable,
-                    thumbHeight,
-                    thumbTopBottomMargin,
-                    thumbRightMargin
-            );
+        /**
+         * Detach when {@code owner} is destroyed and stay idle while it is stopped.
+         */
+        public Builder setLifecycleOwner(LifecycleOwner owner) {
+            this.lifecycleOwner = owner;
+            return this;
+        }
+
+        /**
+         * While the thumb is dragged fast, {@code listener} is told to bind placeholders; when the
+         * drag slows down or ends, the visible items are rebound once with
+         * {@link #PAYLOAD_FULL_BIND}.
+         */
+        public Builder setOnScrubBindListener(OnScrubBindListener listener) {
+            this.scrubBindListener = listener;
+            return this;
+        }
+
+        /**
+         * The adapter is sorted by the keys {@code extractor} returns; enables
+         * {@link ConfigurableFastScroll#jumpToKey(long)}.
+         */
+        public Builder setKeyExtractor(KeyExtractor extractor) {
+            this.keyExtractor = extractor;
+            return this;
+        }
+
+        /**
+         * Use a prepared style instead of resolving the look on every build. The thumb and
+         * section bubble setters of this builder are ignored then.
+         */
+        public Builder setStyle(FastScrollStyle style) {
+            this.style = style;
+            return this;
         }
 
         public Builder setHeight(@DimenRes int thumb_height) {
-            this.thumbHeight = recyclerview.getResources().getDimension(thumb_height);
+            styleBuilder.setHeight(thumb_height);
             return this;
         }
 
         public Builder setTopBottomMargin(@DimenRes int thumb_top_bottom_margin) {
-            this.thumbTopBottomMargin = recyclerview.getResources().getDimension(thumb_top_bottom_margin);
+            styleBuilder.setTopBottomMargin(thumb_top_bottom_margin);
             return this;
         }
 
         public Builder setRightMargin(@DimenRes int thumb_right_margin) {
-            this.thumbRightMargin = recyclerview.getResources().getDimension(thumb_right_margin);
+            styleBuilder.setRightMargin(thumb_right_margin);
             return this;
         }
 
         public Builder setThumbTint(int thumbTint) {
-            this.thumbTint = recyclerview.getResources().getColor(thumbTint);
+            styleBuilder.setThumbTint(thumbTint);
+            return this;
+        }
 
+        /**
+         * Also show a thumb along the bottom edge while the LayoutManager scrolls horizontally,
+         * e.g. for a horizontal list or a layout that scrolls both ways. Its position comes from
+         * the RecyclerView's horizontal estimate.
+         */
+        public Builder setHorizontalThumb(boolean horizontal_thumb) {
+            this.horizontalExtentProvider = horizontal_thumb
+                    ? new RecyclerViewExtentProvider(RecyclerView.HORIZONTAL) : null;
             return this;
         }
-    }
 
-    private class AnimatorListener extends AnimatorListenerAdapter {
+        /**
+         * Like {@link #setHorizontalThumb(boolean)} for a horizontal LinearLayoutManager whose
+         * items all have the given width.
+         */
+        public Builder setHorizontalItemExtent(@DimenRes int item_extent) {
+            this.horizontalExtentProvider = new FixedExtentProvider(
+                    recyclerview.getResources().getDimensionPixelSize(item_extent));
+            return this;
+        }
 
-        private boolean mCanceled = false;
+        /**
+         * Show a horizontal thumb placed by a custom source of the horizontal scroll range and
+         * offset, measured from the start edge.
+         */
+        public Builder setHorizontalExtentProvider(ScrollExtentProvider extentProvider) {
+            this.horizontalExtentProvider = extentProvider;
+            return this;
+        }
 
-        @Override
-        public void onAnimationEnd(Animator animation) {
-            // Cancel is always followed by a new directive, so don't update state.
-            if (mCanceled) {
-                mCanceled = false;
-                return;
-            }
-            if ((float) mShowHideAnimator.getAnimatedValue() == 0) {
-                mAnimationState = ANIMATION_STATE_OUT;
-                setState(STATE_HIDDEN);
-            } else {
-                mAnimationState = ANIMATION_STATE_IN;
-                requestRedraw();
-            }
+        public Builder setHorizontalThumbDrawable(@DrawableRes int thumb_drawable) {
+            styleBuilder.setHorizontalThumbDrawable(thumb_drawable);
+            return this;
         }
 
-        @Override
-        public void onAnimationCancel(Animator animation) {
-            mCanceled = true;
+        public Builder setHorizontalWidth(@DimenRes int thumb_width) {
+            styleBuilder.setHorizontalWidth(thumb_width);
+            return this;
         }
-    }
 
-    private class AnimatorUpdater implements ValueAnimator.AnimatorUpdateListener {
+        public Builder setHorizontalLeftRightMargin(@DimenRes int thumb_left_right_margin) {
+            styleBuilder.setHorizontalLeftRightMargin(thumb_left_right_margin);
+            return this;
+        }
 
-        @Override
-        public void onAnimationUpdate(ValueAnimator valueAnimator) {
-            int alpha = (int) (SCROLLBAR_FULL_OPAQUE * ((float) valueAnimator.getAnimatedValue()));
-            mVerticalThumbDrawable.setAlpha(alpha);
-            requestRedraw();
+        public Builder setHorizontalBottomMargin(@DimenRes int thumb_bottom_margin) {
+            styleBuilder.setHorizontalBottomMargin(thumb_bottom_margin);
+            return this;
+        }
+
+        /**
+         * {@link #DRAG_MODE_JUMP} maps the thumb to an adapter position and jumps there, instead
+         * of scrolling through every item in between. {@link #DRAG_MODE_DEFERRED} only jumps once
+         * the thumb rests or is released. Overrides the mode the other setters imply.
+         */
+        public Builder setDragMode(@DragMode int dragMode) {
+            this.dragMode = dragMode;
+            this.dragModeSet = true;
+            return this;
+        }
+
+        /**
+         * Drag moves are applied once per frame. With a positive value the thumb is placed where
+         * the finger is predicted to be {@code millis} ahead, which hides some touch latency.
+         */
+        public Builder setDragPrediction(int millis) {
+            this.dragPredictionMs = Math.max(0, millis);
+            return this;
+        }
+
+        /**
+         * While the thumb is dragged quickly, ViewHolders for the window it is heading for are
+         * created in idle time so that landing only has to bind them.
+         */
+        public Builder setDragPrefetch(boolean drag_prefetch) {
+            this.dragPrefetch = drag_prefetch;
+            return this;
+        }
+
+        /**
+         * Enables drag prefetching and reports each predicted landing window to
+         * {@code listener}, e.g. to start loading images for it.
+         */
+        public Builder setOnDragPrefetchListener(OnDragPrefetchListener listener) {
+            this.dragPrefetchListener = listener;
+            return this;
+        }
+
+        /**
+         * The list is backed by paged data. The thumb spans the declared total count of
+         * {@code data_source} at {@code item_extent} per row and jumps to its target; during a
+         * scrub only the pages under the resting target are loaded. Implies
+         * {@link #DRAG_MODE_JUMP} unless {@link #setDragMode(int)} or a scrub preview says
+         * otherwise.
+         */
+        public Builder setPagedDataSource(PagedDataSource data_source,
+                                          @DimenRes int item_extent) {
+            this.pagedDataSource = data_source;
+            this.extentProvider = new PagedExtentProvider(data_source,
+                    recyclerview.getResources().getDimensionPixelSize(item_extent));
+            return this;
+        }
+
+        /**
+         * Draw the thumb from bitmaps of its normal and pressed states, rendered once at the
+         * thumb's size, instead of rasterizing the drawable on every frame. Worth it for vector
+         * or gradient thumbs; the bitmaps are shared by scrollers with the same drawable and tint.
+         * Not used by {@link #setThumbOverlay(boolean)}, which keeps the drawn thumb in its own
+         * view.
+         */
+        public Builder setThumbBitmapCache(boolean thumb_bitmap_cache) {
+            this.thumbBitmapCache = thumb_bitmap_cache;
+            return this;
+        }
+
+        /**
+         * Draw the thumb as a view in the RecyclerView's overlay rather than as an item
+         * decoration. Thumb moves and fades then only update that view's translation and alpha
+         * instead of redrawing the whole list. Needs API 18; the decoration is used before that.
+         * The overlay view draws the thumb drawable itself, so {@link #setThumbBitmapCache} only
+         * applies where the decoration is used. A horizontal thumb stays a decoration that fades
+         * along with the overlay.
+         */
+        public Builder setThumbOverlay(boolean thumb_overlay) {
+            this.thumbOverlay = thumb_overlay;
+            return this;
+        }
+
+        /**
+         * Scrub in {@link #DRAG_MODE_DEFERRED}: while the thumb moves the list stays put and the
+         * label {@code provider} returns for the target position is shown next to the thumb. The
+         * list jumps once, when the thumb rests briefly or is released. For rows too expensive to
+         * lay out on every frame. Implies {@link #DRAG_MODE_DEFERRED} unless
+         * {@link #setDragMode(int)} says otherwise, in which case the preview is not shown.
+         */
+        public Builder setScrubPreviewProvider(ScrubPreviewProvider provider) {
+            this.scrubPreviewProvider = provider;
+            return this;
+        }
+
+        /**
+         * Reports the duration, frames, scroll calls, distance and dropped frames of every drag of
+         * the thumb. Nothing is measured without a listener.
+         */
+        public Builder setMetricsListener(FastScrollMetricsListener listener) {
+            this.metricsListener = listener;
+            return this;
+        }
+
+        /**
+         * Show the label of the current section next to the thumb while it is dragged. The
+         * indexer is queried on a background thread whenever the adapter changes, never during
+         * the drag, so it must be safe to call off the main thread.
+         */
+        public Builder setSectionIndexer(SectionIndexer sectionIndexer) {
+            this.sectionIndexer = sectionIndexer;
+            return this;
+        }
+
+        public Builder setSectionBubbleDrawable(@DrawableRes int section_bubble_drawable) {
+            styleBuilder.setSectionBubbleDrawable(section_bubble_drawable);
+            return this;
+        }
+
+        /**
+         * Use a custom source for the scroll range and offset instead of the RecyclerView's
+         * estimate.
+         */
+        public Builder setExtentProvider(ScrollExtentProvider extentProvider) {
+            this.extentProvider = extentProvider;
+            return this;
+        }
+
+        /**
+         * Every item has the given extent; scroll range and offset become exact arithmetic.
+         */
+        public Builder setFixedItemExtent(@DimenRes int item_extent) {
+            this.extentProvider = new FixedExtentProvider(
+                    recyclerview.getResources().getDimensionPixelSize(item_extent));
+            return this;
+        }
+
+        /**
+         * The list uses a GridLayoutManager whose rows all have the given extent. The thumb maps
+         * to rows and jumps to the first item of the row under it, whatever the span sizes.
+         * Implies {@link #DRAG_MODE_JUMP} unless {@link #setDragMode(int)} or a scrub preview
+         * says otherwise.
+         */
+        public Builder setGridRowExtent(@DimenRes int row_extent) {
+            this.extentProvider = new GridExtentProvider(
+                    recyclerview.getResources().getDimensionPixelSize(row_extent));
+            return this;
+        }
+
+        /**
+         * Items have variable extents; measured extents are indexed as rows are laid out and
+         * {@code estimated_item_extent} is assumed for rows that have not been seen yet.
+         */
+        public Builder setMeasuredItemExtent(@DimenRes int estimated_item_extent) {
+            this.extentProvider = new MeasuredExtentProvider(
+                    recyclerview.getResources().getDimensionPixelSize(estimated_item_extent));
+            return this;
+        }
+
+        /**
+         * Like {@link #setMeasuredItemExtent(int)}, and if the adapter has stable IDs measured
+         * extents are kept in {@code extent_cache}, so the thumb is accurate from the first frame
+         * when the list is opened again. Use one file per list.
+         */
+        public Builder setMeasuredItemExtent(@DimenRes int estimated_item_extent,
+                                             File extent_cache) {
+            this.extentProvider = new MeasuredExtentProvider(
+                    recyclerview.getResources().getDimensionPixelSize(estimated_item_extent),
+                    extent_cache);
+            return this;
         }
     }
 }
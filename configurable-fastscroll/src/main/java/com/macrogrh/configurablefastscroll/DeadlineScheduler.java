@@ -0,0 +1,97 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.os.SystemClock;
+
+/**
+ * Runs an action once no event has pushed its deadline back for a given delay, e.g. hiding the
+ * thumb after scrolling stops. Pushing the deadline only writes a timestamp; a single callback
+ * stays posted and re-arms itself for the current deadline when it fires early, so a fling costs
+ * a couple of messages instead of two per scroll event.
+ */
+final class DeadlineScheduler {
+
+    /**
+     * Time source and message queue the scheduler runs on.
+     */
+    interface Timer {
+
+        Timer MAIN = new Timer() {
+            @Override
+            public long uptimeMillis() {
+                return SystemClock.uptimeMillis();
+            }
+
+            @Override
+            public void postAtTime(Runnable runnable, long uptimeMillis) {
+                FastScrollExecutors.mainHandler().postAtTime(runnable, uptimeMillis);
+            }
+
+            @Override
+            public void removeCallbacks(Runnable runnable) {
+                FastScrollExecutors.mainHandler().removeCallbacks(runnable);
+            }
+        };
+
+        long uptimeMillis();
+
+        void postAtTime(Runnable runnable, long uptimeMillis);
+
+        void removeCallbacks(Runnable runnable);
+    }
+
+    private static final long NO_DEADLINE = -1;
+
+    private final Runnable mAction;
+    private final Timer mTimer;
+    private long mDeadline = NO_DEADLINE;
+    // Time the outstanding callback is posted for, or NO_DEADLINE if none is
+    private long mPostedAt = NO_DEADLINE;
+
+    private final Runnable mTimeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPostedAt = NO_DEADLINE;
+            if (mDeadline == NO_DEADLINE) {
+                return;
+            }
+            if (mTimer.uptimeMillis() < mDeadline) {
+                post(mDeadline);
+                return;
+            }
+            mDeadline = NO_DEADLINE;
+            mAction.run();
+        }
+    };
+
+    DeadlineScheduler(Runnable action, Timer timer) {
+        mAction = action;
+        mTimer = timer;
+    }
+
+    /**
+     * Runs the action {@code delayMillis} from now, replacing any earlier deadline.
+     */
+    void schedule(long delayMillis) {
+        mDeadline = mTimer.uptimeMillis() + delayMillis;
+        if (mPostedAt == NO_DEADLINE) {
+            post(mDeadline);
+        } else if (mPostedAt > mDeadline) {
+            // Only a shorter delay than the pending one needs the callback to move.
+            mTimer.removeCallbacks(mTimeoutRunnable);
+            post(mDeadline);
+        }
+    }
+
+    void cancel() {
+        mDeadline = NO_DEADLINE;
+        if (mPostedAt != NO_DEADLINE) {
+            mTimer.removeCallbacks(mTimeoutRunnable);
+            mPostedAt = NO_DEADLINE;
+        }
+    }
+
+    private void post(long uptimeMillis) {
+        mPostedAt = uptimeMillis;
+        mTimer.postAtTime(mTimeoutRunnable, uptimeMillis);
+    }
+}
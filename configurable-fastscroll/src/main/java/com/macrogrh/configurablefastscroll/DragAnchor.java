@@ -0,0 +1,117 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The item a drag is resting on, kept in step with structural adapter changes that arrive during
+ * the drag. Changes only shift the anchored position and flag it; however many arrive, the
+ * scroller is called back once and re-anchors on its next frame.
+ */
+final class DragAnchor extends RecyclerView.AdapterDataObserver {
+
+    private final Runnable mOnMoved;
+
+    @Nullable
+    private RecyclerView.Adapter<?> mAdapter;
+    private int mPosition = RecyclerView.NO_POSITION;
+    private int mOffset = 0;
+    private boolean mMoved = false;
+
+    /**
+     * @param onMoved run on the first change after {@link #consumeMoved()}.
+     */
+    DragAnchor(Runnable onMoved) {
+        mOnMoved = onMoved;
+    }
+
+    /**
+     * Follows the changes of {@code adapter}, or of none, and drops the anchor.
+     */
+    void observe(@Nullable RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(this);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(this);
+        }
+        mPosition = RecyclerView.NO_POSITION;
+        mOffset = 0;
+        mMoved = false;
+    }
+
+    void set(int position, int intraItemOffset) {
+        mPosition = position;
+        mOffset = intraItemOffset;
+    }
+
+    int getPosition() {
+        return mPosition;
+    }
+
+    int getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @return true if the adapter changed structurally since the last call.
+     */
+    boolean consumeMoved() {
+        boolean moved = mMoved;
+        mMoved = false;
+        return moved;
+    }
+
+    @Override
+    public void onChanged() {
+        // Positions are no longer comparable; the caller clamps to the new item count.
+        onMoved();
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (mPosition != RecyclerView.NO_POSITION && positionStart <= mPosition) {
+            mPosition += itemCount;
+        }
+        onMoved();
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (mPosition != RecyclerView.NO_POSITION && positionStart <= mPosition) {
+            if (positionStart + itemCount <= mPosition) {
+                mPosition -= itemCount;
+            } else {
+                // The anchored item is gone; rest on the first item after it.
+                mPosition = positionStart;
+                mOffset = 0;
+            }
+        }
+        onMoved();
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (mPosition != RecyclerView.NO_POSITION) {
+            if (mPosition >= fromPosition && mPosition < fromPosition + itemCount) {
+                mPosition += toPosition - fromPosition;
+            } else {
+                if (fromPosition < mPosition) {
+                    mPosition -= itemCount;
+                }
+                if (toPosition <= mPosition) {
+                    mPosition += itemCount;
+                }
+            }
+        }
+        onMoved();
+    }
+
+    private void onMoved() {
+        if (!mMoved) {
+            mMoved = true;
+            mOnMoved.run();
+        }
+    }
+}
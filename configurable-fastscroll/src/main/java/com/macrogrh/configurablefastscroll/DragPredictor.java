@@ -0,0 +1,63 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Keeps the most recent pointer samples of a drag in a fixed ring buffer and extrapolates the
+ * pointer position a few milliseconds ahead from their velocity.
+ */
+final class DragPredictor {
+
+    private static final int CAPACITY = 16;
+    // Samples older than this relative to the newest one do not contribute to the velocity.
+    private static final long VELOCITY_WINDOW_MS = 40;
+
+    private final long[] mTimes = new long[CAPACITY];
+    private final float[] mPositions = new float[CAPACITY];
+    private int mNewest = -1;
+    private int mCount = 0;
+
+    void reset() {
+        mNewest = -1;
+        mCount = 0;
+    }
+
+    void addSample(long timeMillis, float position) {
+        mNewest = (mNewest + 1) % CAPACITY;
+        mTimes[mNewest] = timeMillis;
+        mPositions[mNewest] = position;
+        mCount = Math.min(mCount + 1, CAPACITY);
+    }
+
+    float getLatest() {
+        return mCount == 0 ? 0 : mPositions[mNewest];
+    }
+
+    /**
+     * @return pixels per millisecond over the recent samples, or 0 if there are not enough.
+     */
+    float getVelocity() {
+        if (mCount < 2) {
+            return 0;
+        }
+        long newestTime = mTimes[mNewest];
+        int oldest = mNewest;
+        for (int i = 1; i < mCount; i++) {
+            int index = (mNewest - i + CAPACITY) % CAPACITY;
+            if (newestTime - mTimes[index] > VELOCITY_WINDOW_MS) {
+                break;
+            }
+            oldest = index;
+        }
+        long elapsed = newestTime - mTimes[oldest];
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return (mPositions[mNewest] - mPositions[oldest]) / elapsed;
+    }
+
+    /**
+     * @return the latest position moved {@code aheadMillis} further along the current velocity.
+     */
+    float predict(long aheadMillis) {
+        return getLatest() + getVelocity() * aheadMillis;
+    }
+}
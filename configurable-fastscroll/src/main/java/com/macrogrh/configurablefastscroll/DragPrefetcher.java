@@ -0,0 +1,150 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Prepares the window a fast drag is predicted to land on. Missing ViewHolders for the predicted
+ * positions are created one per idle pass of the main looper and parked in the RecyclerView's
+ * pool, so the landing frame only has to bind them; the listener, if any, can warm their data.
+ */
+final class DragPrefetcher {
+
+    @Nullable
+    private final OnDragPrefetchListener mListener;
+
+    private RecyclerView mRecyclerView;
+    private int mFirstPosition = RecyclerView.NO_POSITION;
+    private int mLastPosition = RecyclerView.NO_POSITION;
+    private int mNextPosition;
+    private int mDirection = 0;
+    private boolean mIdleHandlerQueued = false;
+
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            boolean more = createNextViewHolder();
+            if (!more) {
+                mIdleHandlerQueued = false;
+            }
+            return more;
+        }
+    };
+
+    DragPrefetcher(@Nullable OnDragPrefetchListener listener) {
+        mListener = listener;
+    }
+
+    void attachToRecyclerView(RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+    }
+
+    void detachFromRecyclerView() {
+        cancel();
+        mRecyclerView = null;
+    }
+
+    /**
+     * Predicts that the drag, moving towards higher positions if {@code direction} is positive,
+     * lands with {@code firstPosition} at the top of the list. A prediction in the opposite
+     * direction of the previous one drops it first.
+     */
+    void prefetch(int firstPosition, int direction) {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter == null || adapter.getItemCount() == 0) {
+            return;
+        }
+        if (direction != mDirection) {
+            cancel();
+            mDirection = direction;
+        }
+        int itemCount = adapter.getItemCount();
+        int first = Math.max(0, Math.min(itemCount - 1, firstPosition));
+        int last = Math.min(itemCount - 1, first + Math.max(1, mRecyclerView.getChildCount()) - 1);
+        if (first == mFirstPosition && last == mLastPosition) {
+            return;
+        }
+        mFirstPosition = first;
+        mLastPosition = last;
+        mNextPosition = first;
+        if (mListener != null) {
+            mListener.onDragPrefetch(first, last);
+        }
+        if (!mIdleHandlerQueued) {
+            mIdleHandlerQueued = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    void cancel() {
+        mDirection = 0;
+        mFirstPosition = RecyclerView.NO_POSITION;
+        mLastPosition = RecyclerView.NO_POSITION;
+        if (mIdleHandlerQueued) {
+            mIdleHandlerQueued = false;
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * Creates at most one ViewHolder for the predicted window.
+     *
+     * @return true if the window may still be missing ViewHolders.
+     */
+    private boolean createNextViewHolder() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter == null || mFirstPosition == RecyclerView.NO_POSITION) {
+            return false;
+        }
+        int last = Math.min(mLastPosition, adapter.getItemCount() - 1);
+        while (mNextPosition <= last) {
+            int viewType = adapter.getItemViewType(mNextPosition++);
+            if (countAvailable(viewType) < countInWindow(adapter, viewType, last)) {
+                RecyclerView.ViewHolder holder = adapter.createViewHolder(mRecyclerView, viewType);
+                putRecycledView(holder, viewType);
+                return mNextPosition <= last;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return how many ViewHolders of {@code viewType} the landing layout can reuse: the pooled
+     * ones and the attached ones, which are recycled when the list jumps.
+     */
+    private int countAvailable(int viewType) {
+        int count = mRecyclerView.getRecycledViewPool().getRecycledViewCount(viewType);
+        for (int i = 0, childCount = mRecyclerView.getChildCount(); i < childCount; i++) {
+            RecyclerView.ViewHolder holder =
+                    mRecyclerView.getChildViewHolder(mRecyclerView.getChildAt(i));
+            if (holder != null && holder.getItemViewType() == viewType) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int countInWindow(RecyclerView.Adapter<?> adapter, int viewType, int last) {
+        int count = 0;
+        for (int position = mFirstPosition; position <= last; position++) {
+            if (adapter.getItemViewType(position) == viewType) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void putRecycledView(RecyclerView.ViewHolder holder, int viewType) {
+        RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        int count = pool.getRecycledViewCount(viewType);
+        pool.putRecycledView(holder);
+        if (pool.getRecycledViewCount(viewType) == count) {
+            // The pool was full for this type; grow it rather than dropping the new holder.
+            pool.setMaxRecycledViews(viewType, count + 1);
+            pool.putRecycledView(holder);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.macrogrh.configurablefastscroll;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Item extents keyed by stable ID in a memory-mapped file of fixed size. The file is a 4-way set
+ * associative table of (id, extent, stamp) entries; a full set drops its least recently written
+ * entry, so the file never grows past {@link #fileSize}. Thread-safe, but opening the file may
+ * zero-fill the whole table, so every call belongs on a background thread.
+ * <p>
+ * The store is only a cache. If the file cannot be mapped, every lookup misses and writes are
+ * dropped.
+ */
+final class ExtentStore {
+
+    static final int DEFAULT_MAX_ENTRIES = 1 << 16;
+
+    private static final int MAGIC = 0x46534543;
+    private static final int VERSION = 1;
+    private static final int WAYS = 4;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 16;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_SET_COUNT = 8;
+    private static final int OFFSET_CLOCK = 12;
+
+    private final File mFile;
+    private final int mSetCount;
+
+    // Mapped on first use; null afterwards if mapping failed.
+    private MappedByteBuffer mBuffer;
+    private boolean mOpened = false;
+    private int mClock;
+
+    /**
+     * @param maxEntries the most extents kept, rounded up to a power of two.
+     */
+    ExtentStore(File file, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        mFile = file;
+        mSetCount = Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS - 1)) << 1;
+    }
+
+    static long fileSize(int setCount) {
+        return HEADER_SIZE + (long) setCount * WAYS * ENTRY_SIZE;
+    }
+
+    int getMaxEntries() {
+        return mSetCount * WAYS;
+    }
+
+    /**
+     * @return the stored extent of {@code id}, or 0 if there is none.
+     */
+    synchronized int get(long id) {
+        if (!open()) {
+            return 0;
+        }
+        int entry = findEntry(id);
+        return entry < 0 ? 0 : mBuffer.getInt(entry + 8);
+    }
+
+    /**
+     * Looks up the first {@code count} ids at once, writing 0 for those without a stored extent.
+     */
+    synchronized void getAll(long[] ids, int[] outExtents, int count) {
+        boolean opened = open();
+        for (int i = 0; i < count; i++) {
+            int entry = opened ? findEntry(ids[i]) : -1;
+            outExtents[i] = entry < 0 ? 0 : mBuffer.getInt(entry + 8);
+        }
+    }
+
+    /**
+     * Stores the first {@code count} extents; extents of 0 or less are skipped.
+     */
+    synchronized void putAll(long[] ids, int[] extents, int count) {
+        if (!open()) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (extents[i] > 0) {
+                put(ids[i], extents[i]);
+            }
+        }
+        mBuffer.putInt(OFFSET_CLOCK, mClock);
+    }
+
+    /**
+     * Writes stored extents back to the file.
+     */
+    void flush() {
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            buffer = mBuffer;
+        }
+        // Syncing can take a while; writers may keep going meanwhile.
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    private void put(long id, int extent) {
+        int set = HEADER_SIZE + setOf(id) * WAYS * ENTRY_SIZE;
+        int target = -1;
+        int oldestStamp = Integer.MAX_VALUE;
+        for (int way = 0; way < WAYS; way++) {
+            int entry = set + way * ENTRY_SIZE;
+            int storedExtent = mBuffer.getInt(entry + 8);
+            if (storedExtent != 0 && mBuffer.getLong(entry) == id) {
+                target = entry;
+                break;
+            }
+            // Empty entries have a stamp of 0, so they are picked before any live one.
+            int stamp = storedExtent == 0 ? 0 : mBuffer.getInt(entry + 12);
+            if (target < 0 || stamp - mClock < oldestStamp - mClock) {
+                target = entry;
+                oldestStamp = stamp;
+            }
+        }
+        mBuffer.putLong(target, id);
+        mBuffer.putInt(target + 8, extent);
+        mBuffer.putInt(target + 12, ++mClock);
+    }
+
+    private int findEntry(long id) {
+        int set = HEADER_SIZE + setOf(id) * WAYS * ENTRY_SIZE;
+        for (int way = 0; way < WAYS; way++) {
+            int entry = set + way * ENTRY_SIZE;
+            if (mBuffer.getInt(entry + 8) != 0 && mBuffer.getLong(entry) == id) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int setOf(long id) {
+        // Stable IDs are often sequential; mix them so neighbours spread over the sets.
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (mSetCount - 1);
+    }
+
+    private boolean open() {
+        if (mOpened) {
+            return mBuffer != null;
+        }
+        mOpened = true;
+        long size = fileSize(mSetCount);
+        try (RandomAccessFile file = new RandomAccessFile(mFile, "rw")) {
+            boolean valid = file.length() == size;
+            file.setLength(size);
+            // The mapping stays valid after the channel is closed.
+            mBuffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!valid || mBuffer.getInt(OFFSET_MAGIC) != MAGIC
+                    || mBuffer.getInt(OFFSET_VERSION) != VERSION
+                    || mBuffer.getInt(OFFSET_SET_COUNT) != mSetCount) {
+                clear();
+            }
+            mClock = mBuffer.getInt(OFFSET_CLOCK);
+        } catch (IOException e) {
+            mBuffer = null;
+        }
+        return mBuffer != null;
+    }
+
+    private void clear() {
+        for (int i = 0, size = mBuffer.capacity(); i < size; i += 8) {
+            mBuffer.putLong(i, 0);
+        }
+        mBuffer.putInt(OFFSET_MAGIC, MAGIC);
+        mBuffer.putInt(OFFSET_VERSION, VERSION);
+        mBuffer.putInt(OFFSET_SET_COUNT, mSetCount);
+        mBuffer.putInt(OFFSET_CLOCK, 0);
+    }
+}
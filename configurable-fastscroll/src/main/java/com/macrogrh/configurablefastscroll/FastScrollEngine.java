@@ -0,0 +1,168 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Drives the fades and hide deadlines of every fast scroller on the main thread. Animating
+ * scrollers share one frame callback and waiting ones share one timer posted for the earliest
+ * deadline; with nothing animating or waiting, the engine has nothing posted at all.
+ */
+final class FastScrollEngine {
+
+    interface Client {
+
+        /**
+         * Advances the client's animation to {@code frameTimeMillis}.
+         *
+         * @return true if the client needs another frame.
+         */
+        boolean doAnimationFrame(long frameTimeMillis);
+
+        void onHideDeadline();
+    }
+
+    private static FastScrollEngine sInstance;
+
+    private final FrameScheduler mFrameScheduler;
+    private final DeadlineScheduler.Timer mTimer;
+    private final DeadlineScheduler mHideScheduler;
+
+    private final ArrayList<Client> mAnimating = new ArrayList<>();
+    private boolean mFramePosted = false;
+
+    private final ArrayList<Client> mWaiting = new ArrayList<>();
+    private long[] mDeadlines = new long[4];
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFramePosted = false;
+            long frameTimeMillis = frameTimeNanos / 1000000;
+            // Backwards, so clients that finish can be dropped in place.
+            for (int i = mAnimating.size() - 1; i >= 0; i--) {
+                if (i >= mAnimating.size()) {
+                    continue;
+                }
+                Client client = mAnimating.get(i);
+                if (!client.doAnimationFrame(frameTimeMillis)) {
+                    int index = mAnimating.indexOf(client);
+                    if (index >= 0) {
+                        mAnimating.remove(index);
+                    }
+                }
+            }
+            postFrameIfNeeded();
+        }
+    };
+
+    private final Runnable mHideRunnable = new Runnable() {
+        @Override
+        public void run() {
+            long now = mTimer.uptimeMillis();
+            for (int i = mWaiting.size() - 1; i >= 0; i--) {
+                if (i < mWaiting.size() && mDeadlines[i] <= now) {
+                    Client client = mWaiting.get(i);
+                    removeWaiting(i);
+                    client.onHideDeadline();
+                }
+            }
+            scheduleEarliestDeadline();
+        }
+    };
+
+    static FastScrollEngine getInstance() {
+        if (sInstance == null) {
+            sInstance = new FastScrollEngine(FrameScheduler.CHOREOGRAPHER,
+                    DeadlineScheduler.Timer.MAIN);
+        }
+        return sInstance;
+    }
+
+    FastScrollEngine(FrameScheduler frameScheduler, DeadlineScheduler.Timer timer) {
+        mFrameScheduler = frameScheduler;
+        mTimer = timer;
+        mHideScheduler = new DeadlineScheduler(mHideRunnable, timer);
+    }
+
+    /**
+     * Calls {@link Client#doAnimationFrame} on every frame until it returns false.
+     */
+    void startAnimating(Client client) {
+        if (!mAnimating.contains(client)) {
+            mAnimating.add(client);
+        }
+        postFrameIfNeeded();
+    }
+
+    void stopAnimating(Client client) {
+        mAnimating.remove(client);
+        if (mAnimating.isEmpty() && mFramePosted) {
+            mFramePosted = false;
+            mFrameScheduler.removeFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * Calls {@link Client#onHideDeadline} {@code delayMillis} from now, replacing the client's
+     * earlier deadline if it has one.
+     */
+    void scheduleHide(Client client, long delayMillis) {
+        int index = mWaiting.indexOf(client);
+        if (index < 0) {
+            index = mWaiting.size();
+            mWaiting.add(client);
+            if (mDeadlines.length <= index) {
+                long[] deadlines = new long[mDeadlines.length * 2];
+                System.arraycopy(mDeadlines, 0, deadlines, 0, mDeadlines.length);
+                mDeadlines = deadlines;
+            }
+        }
+        mDeadlines[index] = mTimer.uptimeMillis() + delayMillis;
+        scheduleEarliestDeadline();
+    }
+
+    void cancelHide(Client client) {
+        int index = mWaiting.indexOf(client);
+        if (index >= 0) {
+            removeWaiting(index);
+            if (mWaiting.isEmpty()) {
+                mHideScheduler.cancel();
+            }
+        }
+    }
+
+    void remove(Client client) {
+        stopAnimating(client);
+        cancelHide(client);
+    }
+
+    boolean isDormant() {
+        return !mFramePosted && mWaiting.isEmpty();
+    }
+
+    private void postFrameIfNeeded() {
+        if (!mFramePosted && !mAnimating.isEmpty()) {
+            mFramePosted = true;
+            mFrameScheduler.postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void scheduleEarliestDeadline() {
+        if (mWaiting.isEmpty()) {
+            return;
+        }
+        long earliest = mDeadlines[0];
+        for (int i = 1, count = mWaiting.size(); i < count; i++) {
+            earliest = Math.min(earliest, mDeadlines[i]);
+        }
+        mHideScheduler.schedule(Math.max(0, earliest - mTimer.uptimeMillis()));
+    }
+
+    private void removeWaiting(int index) {
+        int last = mWaiting.size() - 1;
+        System.arraycopy(mDeadlines, index + 1, mDeadlines, index, last - index);
+        mWaiting.remove(index);
+    }
+}
@@ -0,0 +1,55 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors shared by every fast scroller. Index builds run on a single low-priority daemon
+ * thread and publish their result back on the main thread.
+ */
+final class FastScrollExecutors {
+
+    private static final Object sLock = new Object();
+    private static ExecutorService sBackground;
+    private static Handler sMainHandler;
+
+    private FastScrollExecutors() {
+    }
+
+    static Executor background() {
+        synchronized (sLock) {
+            if (sBackground == null) {
+                sBackground = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        Thread thread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                r.run();
+                            }
+                        }, "ConfigurableFastScroll");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return sBackground;
+        }
+    }
+
+    static Handler mainHandler() {
+        synchronized (sLock) {
+            if (sMainHandler == null) {
+                sMainHandler = new Handler(Looper.getMainLooper());
+            }
+            return sMainHandler;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * What happened during one drag of the thumb. The counters are primitives updated in place, so
+ * collecting them allocates nothing.
+ */
+public final class FastScrollMetrics {
+
+    private static final float DEFAULT_FRAME_INTERVAL_MS = 1000f / 60;
+
+    private long mStartTimeMillis;
+    private long mDurationMillis;
+    private float mFrameIntervalMillis = DEFAULT_FRAME_INTERVAL_MS;
+    private int mFrameCount;
+    private int mDroppedFrameCount;
+    private long mTimeToFirstFrameMillis;
+    private int mScrollByCount;
+    private int mJumpCount;
+    private long mPixelsTravelled;
+    private long mPositionsTravelled;
+
+    private int mLastFirstPosition;
+    // When the oldest move not applied yet arrived, or -1
+    private long mPendingMoveTimeMillis;
+
+    FastScrollMetrics() {
+    }
+
+    /**
+     * @return how long the thumb was held, from ACTION_DOWN to release.
+     */
+    public long getDurationMillis() {
+        return mDurationMillis;
+    }
+
+    /**
+     * @return how many frames the list drew while the thumb was held.
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return how many whole frames drag moves waited before they were applied to the list.
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    /**
+     * @return the time from ACTION_DOWN to the first frame drawn, or -1 if none was drawn.
+     */
+    public long getTimeToFirstFrameMillis() {
+        return mTimeToFirstFrameMillis;
+    }
+
+    /**
+     * @return how many {@code scrollBy()} calls the drag issued.
+     */
+    public int getScrollByCount() {
+        return mScrollByCount;
+    }
+
+    /**
+     * @return how many jumps to a position the drag issued.
+     */
+    public int getJumpCount() {
+        return mJumpCount;
+    }
+
+    /**
+     * @return the scroll distance covered by the drag, in pixels.
+     */
+    public long getPixelsTravelled() {
+        return mPixelsTravelled;
+    }
+
+    /**
+     * @return how many adapter positions the first visible item moved by, summed over frames.
+     */
+    public long getPositionsTravelled() {
+        return mPositionsTravelled;
+    }
+
+    void begin(long downTimeMillis, float refreshRate) {
+        mStartTimeMillis = downTimeMillis;
+        mDurationMillis = 0;
+        mFrameIntervalMillis = refreshRate > 0 ? 1000f / refreshRate : DEFAULT_FRAME_INTERVAL_MS;
+        mFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mTimeToFirstFrameMillis = -1;
+        mScrollByCount = 0;
+        mJumpCount = 0;
+        mPixelsTravelled = 0;
+        mPositionsTravelled = 0;
+        mLastFirstPosition = -1;
+        mPendingMoveTimeMillis = -1;
+    }
+
+    void onFrame(long frameTimeMillis, int firstPosition) {
+        if (mFrameCount == 0) {
+            mTimeToFirstFrameMillis = frameTimeMillis - mStartTimeMillis;
+        }
+        mFrameCount++;
+        if (firstPosition >= 0) {
+            if (mLastFirstPosition >= 0) {
+                mPositionsTravelled += Math.abs(firstPosition - mLastFirstPosition);
+            }
+            mLastFirstPosition = firstPosition;
+        }
+    }
+
+    void onMove(long eventTimeMillis) {
+        if (mPendingMoveTimeMillis < 0) {
+            mPendingMoveTimeMillis = eventTimeMillis;
+        }
+    }
+
+    /**
+     * The moves received so far were applied in the frame starting at {@code frameTimeMillis}.
+     */
+    void onMovesApplied(long frameTimeMillis) {
+        if (mPendingMoveTimeMillis >= 0) {
+            // A move is applied in the first frame after it arrives; each further interval it
+            // waited is a missed frame.
+            mDroppedFrameCount += (int) ((frameTimeMillis - mPendingMoveTimeMillis)
+                    / mFrameIntervalMillis);
+            mPendingMoveTimeMillis = -1;
+        }
+    }
+
+    void onScrollBy(int pixels) {
+        mScrollByCount++;
+        mPixelsTravelled += Math.abs(pixels);
+    }
+
+    void onJump(long pixels) {
+        mJumpCount++;
+        mPixelsTravelled += Math.abs(pixels);
+    }
+
+    void end(long upTimeMillis) {
+        mPendingMoveTimeMillis = -1;
+        mDurationMillis = upTimeMillis - mStartTimeMillis;
+    }
+}
@@ -0,0 +1,16 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Receives the metrics of every drag of the thumb, e.g. to report fast scroll performance from
+ * production devices.
+ */
+public interface FastScrollMetricsListener {
+
+    /**
+     * Called on the main thread when a drag of the thumb ends.
+     *
+     * @param metrics the metrics of the drag. The instance is reused for the next drag, so copy
+     *                the values instead of keeping it.
+     */
+    void onDragSessionFinished(FastScrollMetrics metrics);
+}
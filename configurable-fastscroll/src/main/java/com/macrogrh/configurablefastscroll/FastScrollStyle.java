@@ -0,0 +1,287 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.StateListDrawable;
+import android.os.Build;
+import android.text.TextPaint;
+import android.util.TypedValue;
+import android.widget.SectionIndexer;
+
+import androidx.annotation.ColorRes;
+import androidx.annotation.DimenRes;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.content.ContextCompat;
+
+/**
+ * The look of a fast scroller with every resource already resolved: the thumb and section
+ * bubble drawables, their dimensions and the touch target size. Build one up front, possibly off
+ * the main thread, and pass it to {@link ConfigurableFastScroll.Builder#setStyle} for every list
+ * that looks the same; creating a scroller from it then only copies fields and drawable states.
+ * The horizontal thumb is the exception: it is resolved by the first scroller that shows one.
+ */
+public final class FastScrollStyle {
+
+    private static final int MINIMUM_TOUCH_TARGET_DP = 50;
+    private static final int MINIMUM_SCROLLBAR_RANGE_DP = 50;
+
+    // Exactly one of the two is set; drawables without a constant state are shared as is.
+    @Nullable
+    private final Drawable.ConstantState mThumbState;
+    @Nullable
+    private final StateListDrawable mThumbDrawable;
+    final int mThumbDrawableRes;
+    final int mThumbTint;
+    final float mThumbHeight;
+    final int mThumbWidth;
+    final int mTopBottomMargin;
+    final int mRightMargin;
+    final int mMinimumTouchTarget;
+    final int mMinimumScrollbarRange;
+
+    // The horizontal thumb is only resolved once a scroller shows one; most lists never do.
+    private final int mHorizontalThumbDrawableRes;
+    @Nullable
+    private final Drawable mHorizontalThumbDrawableOverride;
+    private final int mHorizontalThumbWidthRes;
+    private final int mLeftRightMarginRes;
+    private final int mBottomMarginRes;
+    @Nullable
+    private HorizontalThumb mHorizontalThumb;
+
+    @Nullable
+    private final Drawable.ConstantState mSectionBubbleState;
+    @Nullable
+    private final Drawable mSectionBubbleDrawable;
+    private final TextPaint mSectionTextPaint;
+    private final int mSectionBubbleSize;
+    private final int mSectionBubbleMargin;
+
+    private FastScrollStyle(Builder builder) {
+        Resources resources = builder.context.getResources();
+
+        StateListDrawable thumb = toStateListDrawable(builder.thumbDrawableOverride != null
+                ? builder.thumbDrawableOverride
+                : ContextCompat.getDrawable(builder.context, builder.thumbDrawable));
+        int tint = builder.thumbTint != 0
+                ? ContextCompat.getColor(builder.context, builder.thumbTint) : 0;
+        if (tint != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            // Tinting writes to the drawable's state, which resources share with other users.
+            thumb = (StateListDrawable) thumb.mutate();
+            thumb.setTint(tint);
+        }
+        mThumbState = thumb.getConstantState();
+        mThumbDrawable = mThumbState == null ? thumb : null;
+        mThumbDrawableRes = builder.thumbDrawable;
+        mThumbTint = tint;
+
+        mThumbHeight = builder.thumbHeight != 0
+                ? resources.getDimension(builder.thumbHeight) : thumb.getIntrinsicHeight();
+        mThumbWidth = (int) (thumb.getIntrinsicWidth() / (float) thumb.getIntrinsicHeight()
+                * mThumbHeight);
+        mTopBottomMargin = builder.thumbTopBottomMargin != 0
+                ? (int) resources.getDimension(builder.thumbTopBottomMargin) : 0;
+        mRightMargin = builder.thumbRightMargin != 0
+                ? (int) resources.getDimension(builder.thumbRightMargin) : 0;
+        mMinimumTouchTarget = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                MINIMUM_TOUCH_TARGET_DP, resources.getDisplayMetrics());
+        mMinimumScrollbarRange = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                MINIMUM_SCROLLBAR_RANGE_DP, resources.getDisplayMetrics());
+
+        mHorizontalThumbDrawableRes = builder.horizontalThumbDrawable;
+        mHorizontalThumbDrawableOverride = builder.horizontalThumbDrawableOverride;
+        mHorizontalThumbWidthRes = builder.horizontalThumbWidth;
+        mLeftRightMarginRes = builder.horizontalThumbLeftRightMargin;
+        mBottomMarginRes = builder.horizontalThumbBottomMargin;
+
+        Drawable bubble = ContextCompat.getDrawable(builder.context,
+                builder.sectionBubbleDrawable);
+        mSectionBubbleState = bubble != null ? bubble.getConstantState() : null;
+        mSectionBubbleDrawable = mSectionBubbleState == null ? bubble : null;
+        mSectionTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mSectionTextPaint.setTextSize(resources.getDimension(R.dimen.fastscroll_section_text_size));
+        mSectionTextPaint.setColor(
+                ContextCompat.getColor(builder.context, R.color.fastscroll_section_text));
+        mSectionBubbleSize =
+                resources.getDimensionPixelSize(R.dimen.fastscroll_section_bubble_size);
+        mSectionBubbleMargin =
+                resources.getDimensionPixelSize(R.dimen.fastscroll_section_bubble_margin);
+    }
+
+    private static StateListDrawable toStateListDrawable(Drawable drawable) {
+        if (drawable instanceof StateListDrawable) {
+            return (StateListDrawable) drawable;
+        }
+        StateListDrawable stateListDrawable = new StateListDrawable();
+        stateListDrawable.addState(new int[]{}, drawable);
+        return stateListDrawable;
+    }
+
+    StateListDrawable newThumbDrawable(Resources resources) {
+        return mThumbState != null
+                ? (StateListDrawable) mThumbState.newDrawable(resources) : mThumbDrawable;
+    }
+
+    /**
+     * Resolves the horizontal thumb on first use, with the context of the first scroller that
+     * shows one.
+     */
+    synchronized HorizontalThumb getHorizontalThumb(Context context) {
+        if (mHorizontalThumb == null) {
+            mHorizontalThumb = new HorizontalThumb(this, context);
+        }
+        return mHorizontalThumb;
+    }
+
+    SectionBubble newSectionBubble(SectionIndexer indexer, Resources resources) {
+        // The bubble only reads the paint, so every scroller shares it.
+        return new SectionBubble(indexer,
+                mSectionBubbleState != null
+                        ? mSectionBubbleState.newDrawable(resources) : mSectionBubbleDrawable,
+                mSectionTextPaint, mSectionBubbleSize, mSectionBubbleMargin);
+    }
+
+    ScrubPreview newScrubPreview(ScrubPreviewProvider provider, Resources resources) {
+        // Laid out on the main thread, so the preview may share the paint too.
+        return new ScrubPreview(provider,
+                mSectionBubbleState != null
+                        ? mSectionBubbleState.newDrawable(resources) : mSectionBubbleDrawable,
+                mSectionTextPaint, mSectionBubbleSize, mSectionBubbleMargin);
+    }
+
+    /**
+     * The horizontal thumb with every resource resolved, the same way as the vertical one.
+     */
+    static final class HorizontalThumb {
+
+        @Nullable
+        private final Drawable.ConstantState mState;
+        @Nullable
+        private final StateListDrawable mDrawable;
+        final float mWidth;
+        final int mHeight;
+        final int mLeftRightMargin;
+        final int mBottomMargin;
+
+        private HorizontalThumb(FastScrollStyle style, Context context) {
+            Resources resources = context.getResources();
+            StateListDrawable thumb = toStateListDrawable(
+                    style.mHorizontalThumbDrawableOverride != null
+                            ? style.mHorizontalThumbDrawableOverride
+                            : ContextCompat.getDrawable(context,
+                                    style.mHorizontalThumbDrawableRes));
+            if (style.mThumbTint != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                thumb = (StateListDrawable) thumb.mutate();
+                thumb.setTint(style.mThumbTint);
+            }
+            mState = thumb.getConstantState();
+            mDrawable = mState == null ? thumb : null;
+            mWidth = style.mHorizontalThumbWidthRes != 0
+                    ? resources.getDimension(style.mHorizontalThumbWidthRes)
+                    : thumb.getIntrinsicWidth();
+            mHeight = (int) (thumb.getIntrinsicHeight() / (float) thumb.getIntrinsicWidth()
+                    * mWidth);
+            mLeftRightMargin = style.mLeftRightMarginRes != 0
+                    ? (int) resources.getDimension(style.mLeftRightMarginRes) : 0;
+            mBottomMargin = style.mBottomMarginRes != 0
+                    ? (int) resources.getDimension(style.mBottomMarginRes) : 0;
+        }
+
+        StateListDrawable newDrawable(Resources resources) {
+            return mState != null ? (StateListDrawable) mState.newDrawable(resources) : mDrawable;
+        }
+    }
+
+    /**
+     * Resolves a {@link FastScrollStyle}. Only reads resources, so it may run on any thread.
+     */
+    public static class Builder {
+        private final Context context;
+        private int thumbDrawable = R.drawable.thumb_drawable_default;
+        private Drawable thumbDrawableOverride;
+        private int thumbTint = 0;
+        private int thumbHeight = 0;
+        private int thumbTopBottomMargin = 0;
+        private int thumbRightMargin = 0;
+        private int horizontalThumbDrawable = R.drawable.thumb_drawable_horizontal_default;
+        private Drawable horizontalThumbDrawableOverride;
+        private int horizontalThumbWidth = 0;
+        private int horizontalThumbLeftRightMargin = 0;
+        private int horizontalThumbBottomMargin = 0;
+        private int sectionBubbleDrawable = R.drawable.section_bubble_default;
+
+        public Builder(Context context) {
+            this.context = context;
+        }
+
+        public Builder setThumbDrawable(@DrawableRes int thumb_drawable) {
+            this.thumbDrawable = thumb_drawable;
+            return this;
+        }
+
+        @VisibleForTesting
+        Builder setThumbDrawable(Drawable thumb_drawable) {
+            this.thumbDrawableOverride = thumb_drawable;
+            return this;
+        }
+
+        public Builder setThumbTint(@ColorRes int thumb_tint) {
+            this.thumbTint = thumb_tint;
+            return this;
+        }
+
+        public Builder setHeight(@DimenRes int thumb_height) {
+            this.thumbHeight = thumb_height;
+            return this;
+        }
+
+        public Builder setTopBottomMargin(@DimenRes int thumb_top_bottom_margin) {
+            this.thumbTopBottomMargin = thumb_top_bottom_margin;
+            return this;
+        }
+
+        public Builder setRightMargin(@DimenRes int thumb_right_margin) {
+            this.thumbRightMargin = thumb_right_margin;
+            return this;
+        }
+
+        public Builder setHorizontalThumbDrawable(@DrawableRes int thumb_drawable) {
+            this.horizontalThumbDrawable = thumb_drawable;
+            return this;
+        }
+
+        @VisibleForTesting
+        Builder setHorizontalThumbDrawable(Drawable thumb_drawable) {
+            this.horizontalThumbDrawableOverride = thumb_drawable;
+            return this;
+        }
+
+        public Builder setHorizontalWidth(@DimenRes int thumb_width) {
+            this.horizontalThumbWidth = thumb_width;
+            return this;
+        }
+
+        public Builder setHorizontalLeftRightMargin(@DimenRes int thumb_left_right_margin) {
+            this.horizontalThumbLeftRightMargin = thumb_left_right_margin;
+            return this;
+        }
+
+        public Builder setHorizontalBottomMargin(@DimenRes int thumb_bottom_margin) {
+            this.horizontalThumbBottomMargin = thumb_bottom_margin;
+            return this;
+        }
+
+        public Builder setSectionBubbleDrawable(@DrawableRes int section_bubble_drawable) {
+            this.sectionBubbleDrawable = section_bubble_drawable;
+            return this;
+        }
+
+        public FastScrollStyle build() {
+            return new FastScrollStyle(this);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.macrogrh.configurablefastscroll;
+
+import java.util.Arrays;
+
+/**
+ * Binary indexed tree over non-negative item extents. Point updates, prefix sums and offset to
+ * index lookups are all O(log n), and a full rebuild from an extent array is O(n). A rebuild
+ * after a change from index k on only costs O(n - k + log n).
+ */
+final class FenwickTree {
+
+    private long[] mTree = new long[1];
+    private int mSize = 0;
+    private int mHighestBit = 0;
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * Rebuilds the tree from the first {@code size} entries of {@code values}.
+     */
+    void reset(int[] values, int size) {
+        if (mTree.length < size + 1) {
+            mTree = new long[size + 1];
+        }
+        mTree[0] = 0;
+        for (int i = 1; i <= size; i++) {
+            mTree[i] = values[i - 1];
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+        mSize = size;
+        mHighestBit = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    /**
+     * Rebuilds the tree from the first {@code size} entries of {@code values}, where only the
+     * entries from index {@code from} on may differ from the last build.
+     */
+    void resetFrom(int[] values, int size, int from) {
+        from = Math.max(0, Math.min(from, Math.min(mSize, size)));
+        if (mTree.length < size + 1) {
+            mTree = Arrays.copyOf(mTree, Math.max(size + 1, mTree.length + (mTree.length >> 1)));
+        }
+        // Nodes up to from only cover unchanged entries and keep their sums.
+        for (int i = from + 1; i <= size; i++) {
+            mTree[i] = values[i - 1];
+        }
+        // The unchanged nodes with a parent past from are exactly those summed by prefixSum(from).
+        for (int i = from; i > 0; i -= i & -i) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+        for (int i = from + 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+        mSize = size;
+        mHighestBit = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    /**
+     * Adds {@code delta} to the value at {@code index}.
+     */
+    void add(int index, long delta) {
+        for (int i = index + 1; i <= mSize; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the sum of the first {@code count} values.
+     */
+    long prefixSum(int count) {
+        long sum = 0;
+        for (int i = Math.min(count, mSize); i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    long total() {
+        return prefixSum(mSize);
+    }
+
+    /**
+     * Returns the index of the value covering {@code offset}, i.e. the largest index whose prefix
+     * sum is {@code <= offset}, clamped to {@code [0, size - 1]}.
+     */
+    int indexOf(long offset) {
+        if (mSize == 0) {
+            return 0;
+        }
+        int index = 0;
+        long remaining = offset;
+        for (int bit = mHighestBit; bit != 0; bit >>= 1) {
+            int next = index + bit;
+            if (next <= mSize && mTree[next] <= remaining) {
+                index = next;
+                remaining -= mTree[next];
+            }
+        }
+        return Math.min(index, mSize - 1);
+    }
+}
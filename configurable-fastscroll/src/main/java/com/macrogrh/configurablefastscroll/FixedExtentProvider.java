@@ -0,0 +1,43 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Extent provider for adapters whose items all have the same extent. Every answer is plain
+ * arithmetic on the adapter's item count.
+ */
+public class FixedExtentProvider extends AdapterExtentProvider {
+
+    private final int mItemExtent;
+
+    /**
+     * @param itemExtent the extent of a single item in pixels, including decorations.
+     */
+    public FixedExtentProvider(int itemExtent) {
+        if (itemExtent <= 0) {
+            throw new IllegalArgumentException("itemExtent must be positive: " + itemExtent);
+        }
+        mItemExtent = itemExtent;
+    }
+
+    public int getItemExtent() {
+        return mItemExtent;
+    }
+
+    @Override
+    long getTotalExtent() {
+        return (long) getItemCount() * mItemExtent;
+    }
+
+    @Override
+    public int getPositionForOffset(long offset) {
+        int itemCount = getItemCount();
+        if (itemCount == 0 || offset <= 0) {
+            return 0;
+        }
+        return (int) Math.min(itemCount - 1, offset / mItemExtent);
+    }
+
+    @Override
+    public long getOffsetForPosition(int position) {
+        return (long) position * mItemExtent;
+    }
+}
@@ -0,0 +1,26 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.Choreographer;
+
+/**
+ * Posts per-frame work. The default goes through the {@link Choreographer} of the calling
+ * thread; tests substitute an implementation that runs frames by hand.
+ */
+interface FrameScheduler {
+
+    FrameScheduler CHOREOGRAPHER = new FrameScheduler() {
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().postFrameCallback(callback);
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().removeFrameCallback(callback);
+        }
+    };
+
+    void postFrameCallback(Choreographer.FrameCallback callback);
+
+    void removeFrameCallback(Choreographer.FrameCallback callback);
+}
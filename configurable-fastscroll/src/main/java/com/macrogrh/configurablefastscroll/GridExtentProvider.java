@@ -0,0 +1,254 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Extent provider for a {@link GridLayoutManager} whose rows all have the same extent. Offsets
+ * map to rows and rows to the adapter position that starts them, so a jump always lands on the
+ * start of a row.
+ * <p>
+ * With the default span sizes every answer is arithmetic. Otherwise the first position of each
+ * row is kept in a table filled in a single pass over the span sizes of the
+ * {@link GridLayoutManager.SpanSizeLookup}; an adapter change only rescans from the row it
+ * touches.
+ */
+public class GridExtentProvider extends AdapterExtentProvider {
+
+    private final int mRowExtent;
+
+    private RecyclerView.Adapter<?> mAdapter;
+    private GridLayoutManager.SpanSizeLookup mLookup;
+    private int mSpanCount = 0;
+
+    // First adapter position of each row; rows [0, mRowCount) are up to date.
+    private int[] mRowStarts = new int[16];
+    private int mRowCount = 0;
+    // Next position to scan for row starts, and the spans taken in its row before it
+    private int mScanPosition = 0;
+    private int mScanSpan = 0;
+    private boolean mRowsComplete = false;
+
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver =
+            new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    invalidateRowsFrom(0);
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount) {
+                    // Span sizes may depend on the items.
+                    invalidateRowsFrom(positionStart);
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount,
+                                               Object payload) {
+                    // The scroller's own rebind after scrubbing leaves the span sizes alone.
+                    if (payload != ConfigurableFastScroll.PAYLOAD_FULL_BIND) {
+                        invalidateRowsFrom(positionStart);
+                    }
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    invalidateRowsFrom(positionStart);
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    invalidateRowsFrom(positionStart);
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    invalidateRowsFrom(Math.min(fromPosition, toPosition));
+                }
+            };
+
+    /**
+     * @param rowExtent the extent of a single row in pixels, including decorations.
+     */
+    public GridExtentProvider(int rowExtent) {
+        if (rowExtent <= 0) {
+            throw new IllegalArgumentException("rowExtent must be positive: " + rowExtent);
+        }
+        mRowExtent = rowExtent;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        syncAdapter();
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        setAdapter(null);
+        mLookup = null;
+        super.onDetachedFromRecyclerView(recyclerView);
+    }
+
+    @Override
+    long getTotalExtent() {
+        return (long) getRowCount() * mRowExtent;
+    }
+
+    @Override
+    public int getPositionForOffset(long offset) {
+        int rowCount = getRowCount();
+        if (rowCount == 0 || offset <= 0) {
+            return 0;
+        }
+        return getRowStart((int) Math.min(rowCount - 1, offset / mRowExtent));
+    }
+
+    @Override
+    public long getOffsetForPosition(int position) {
+        return (long) getRowForPosition(position) * mRowExtent;
+    }
+
+    int getRowCount() {
+        if (!syncLayout()) {
+            return 0;
+        }
+        int itemCount = getItemCount();
+        if (isUniform()) {
+            return (itemCount + mSpanCount - 1) / mSpanCount;
+        }
+        scanRows(itemCount);
+        return mRowCount;
+    }
+
+    int getRowStart(int row) {
+        if (isUniform()) {
+            return row * mSpanCount;
+        }
+        return mRowStarts[row];
+    }
+
+    int getRowForPosition(int position) {
+        if (!syncLayout() || position <= 0) {
+            return 0;
+        }
+        if (isUniform()) {
+            return position / mSpanCount;
+        }
+        scanRows(getItemCount());
+        return findRow(position);
+    }
+
+    /**
+     * @return the last scanned row starting at or before {@code position}.
+     */
+    private int findRow(int position) {
+        int low = 0;
+        int high = mRowCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mRowStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Picks up the layout manager's current span count and lookup.
+     *
+     * @return false if the RecyclerView has no grid to measure.
+     */
+    private boolean syncLayout() {
+        syncAdapter();
+        RecyclerView.LayoutManager layoutManager =
+                mRecyclerView == null ? null : mRecyclerView.getLayoutManager();
+        if (!(layoutManager instanceof GridLayoutManager)) {
+            return false;
+        }
+        GridLayoutManager grid = (GridLayoutManager) layoutManager;
+        if (grid.getSpanSizeLookup() != mLookup || grid.getSpanCount() != mSpanCount) {
+            mLookup = grid.getSpanSizeLookup();
+            mSpanCount = Math.max(1, grid.getSpanCount());
+            invalidateRowsFrom(0);
+        }
+        return true;
+    }
+
+    private boolean isUniform() {
+        return mLookup instanceof GridLayoutManager.DefaultSpanSizeLookup;
+    }
+
+    /**
+     * Extends the row table to cover every item. Costs nothing while it is complete.
+     * <p>
+     * Sums span sizes like the layout manager does: an item starts a new row when it does not
+     * fit in the spans left in the current one. {@code getSpanIndex()} would give the same answer
+     * but walks back over the row, or over the whole list, for every item.
+     */
+    private void scanRows(int itemCount) {
+        if (mRowsComplete) {
+            return;
+        }
+        int span = mScanSpan;
+        for (int position = mScanPosition; position < itemCount; position++) {
+            int spanSize = Math.min(mSpanCount, mLookup.getSpanSize(position));
+            if (position == 0 || span + spanSize > mSpanCount) {
+                if (mRowCount == mRowStarts.length) {
+                    int[] rowStarts = new int[mRowStarts.length * 2];
+                    System.arraycopy(mRowStarts, 0, rowStarts, 0, mRowCount);
+                    mRowStarts = rowStarts;
+                }
+                mRowStarts[mRowCount++] = position;
+                span = 0;
+            }
+            span += spanSize;
+        }
+        mScanPosition = itemCount;
+        mScanSpan = span;
+        mRowsComplete = true;
+    }
+
+    /**
+     * Drops the row containing {@code position} and every row after it; the rows before are not
+     * affected by a change at {@code position}.
+     */
+    private void invalidateRowsFrom(int position) {
+        mRowsComplete = false;
+        if (position >= mScanPosition) {
+            return;
+        }
+        if (mRowCount == 0 || position <= 0) {
+            mRowCount = 0;
+            mScanPosition = 0;
+            mScanSpan = 0;
+            return;
+        }
+        // Rescan from the start of the row, which itself is unchanged.
+        mRowCount = findRow(position);
+        mScanPosition = mRowStarts[mRowCount];
+        // A full row, so the first rescanned item starts a new one.
+        mScanSpan = mSpanCount;
+    }
+
+    private void syncAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != mAdapter) {
+            setAdapter(adapter);
+        }
+    }
+
+    private void setAdapter(RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+        invalidateRowsFrom(0);
+    }
+}
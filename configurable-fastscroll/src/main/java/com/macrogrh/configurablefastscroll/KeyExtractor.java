@@ -0,0 +1,16 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Maps adapter positions of a list sorted by some key, such as a timestamp, to that key, so the
+ * scroller can jump to a key with {@link ConfigurableFastScroll#jumpToKey(long)}.
+ */
+public interface KeyExtractor {
+
+    /**
+     * Keys must not decrease with the position. Called from a background thread while the index
+     * is built and from the main thread while a jump is resolved, so it must be thread-safe.
+     *
+     * @return the key of the item at {@code position}.
+     */
+    long getKey(int position);
+}
@@ -0,0 +1,164 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Resolves keys of a sorted adapter to positions through a {@link SampledKeyIndex}. The index is
+ * built on {@link FastScrollExecutors#background()} the first time a key is requested and dropped
+ * whenever the adapter changes; a jump requested meanwhile is resolved once it is published.
+ */
+final class KeyJumper {
+
+    interface Callback {
+
+        void onKeyResolved(int position);
+    }
+
+    private final KeyExtractor mExtractor;
+    private final Callback mCallback;
+
+    private RecyclerView mRecyclerView;
+    private RecyclerView.Adapter<?> mAdapter;
+    // Null until built and after every adapter change
+    private SampledKeyIndex mIndex;
+    private int mGeneration = 0;
+    private boolean mBuilding = false;
+    private boolean mHasPendingKey = false;
+    private long mPendingKey;
+
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver =
+            new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    invalidate();
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount) {
+                    invalidate();
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount,
+                                               Object payload) {
+                    // The scroller's own rebind after scrubbing leaves the keys alone.
+                    if (payload != ConfigurableFastScroll.PAYLOAD_FULL_BIND) {
+                        invalidate();
+                    }
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    invalidate();
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    invalidate();
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    invalidate();
+                }
+            };
+
+    KeyJumper(KeyExtractor extractor, Callback callback) {
+        mExtractor = extractor;
+        mCallback = callback;
+    }
+
+    void attachToRecyclerView(RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        setAdapter(recyclerView.getAdapter());
+    }
+
+    void detachFromRecyclerView() {
+        setAdapter(null);
+        mRecyclerView = null;
+        mHasPendingKey = false;
+        invalidate();
+    }
+
+    /**
+     * Resolves {@code key} now if the index is ready, or once it has been built.
+     */
+    void jumpTo(long key) {
+        syncAdapter();
+        if (mAdapter == null) {
+            return;
+        }
+        if (mIndex != null) {
+            mHasPendingKey = false;
+            resolve(key);
+            return;
+        }
+        // Only the latest request matters.
+        mPendingKey = key;
+        mHasPendingKey = true;
+        if (!mBuilding) {
+            build();
+        }
+    }
+
+    private void resolve(long key) {
+        int position = mIndex.findPosition(key, mExtractor);
+        if (position != RecyclerView.NO_POSITION) {
+            mCallback.onKeyResolved(position);
+        }
+    }
+
+    private void build() {
+        final int generation = ++mGeneration;
+        final int itemCount = mAdapter.getItemCount();
+        mBuilding = true;
+        FastScrollExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final SampledKeyIndex index = SampledKeyIndex.create(mExtractor, itemCount);
+                FastScrollExecutors.mainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        mBuilding = false;
+                        mIndex = index;
+                        if (mHasPendingKey) {
+                            mHasPendingKey = false;
+                            resolve(mPendingKey);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void invalidate() {
+        // Drops the index and any build still in flight.
+        mGeneration++;
+        mIndex = null;
+        mBuilding = false;
+        if (mHasPendingKey && mAdapter != null) {
+            build();
+        }
+    }
+
+    private void syncAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != mAdapter) {
+            setAdapter(adapter);
+            invalidate();
+        }
+    }
+
+    private void setAdapter(RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.OrientationHelper;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Extent provider for adapters with variable item extents. Items start at an estimated extent
+ * and are replaced by their measured extent once they have been laid out. Extents are kept in a
+ * {@link FenwickTree}, so offset and position lookups cost O(log n) no matter how long the list
+ * is. Structural adapter changes only rebuild the index from the first position they touch, so
+ * appending a page costs O(page size + log n).
+ * <p>
+ * Given a cache file and an adapter with stable IDs, measured extents are also stored by ID in an
+ * {@link ExtentStore} and read back, so a list opened again starts out with the extents it had.
+ * Reads cover a window of {@link #LOAD_WINDOW} items around the visible ones whenever the index
+ * is rebuilt or the list comes to rest outside the last window, plus any inserted items. The
+ * store is only touched on {@link FastScrollExecutors#background()}: items use the estimate
+ * until their stored extents have been read, and measurements are written in batches. Reads in
+ * flight follow the structural changes made meanwhile.
+ */
+public class MeasuredExtentProvider extends AdapterExtentProvider {
+
+    private static final int STORE_BATCH_SIZE = 256;
+    // Items whose stored extents are read at once, centered on the first visible item
+    private static final int LOAD_WINDOW = 1 << 13;
+
+    private final int mEstimatedItemExtent;
+    private final FenwickTree mTree = new FenwickTree();
+    private int[] mExtents = new int[0];
+    private int mItemCount = 0;
+
+    private RecyclerView.Adapter<?> mAdapter;
+
+    @Nullable
+    private final ExtentStore mStore;
+    private long[] mPendingIds;
+    private int[] mPendingExtents;
+    private int mPendingCount = 0;
+    // Reads in flight, whose positions are moved along with the items
+    private final ArrayList<StoredExtentLoad> mLoads = new ArrayList<>();
+    // Last window read around the visible items
+    private int mLoadedStart = 0;
+    private int mLoadedEnd = 0;
+
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver =
+            new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    resetExtents();
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    insertExtents(positionStart, itemCount);
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    removeExtents(positionStart, itemCount);
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    moveExtents(fromPosition, toPosition, itemCount);
+                }
+            };
+
+    private final RecyclerView.OnScrollListener mOnScrollListener =
+            new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    measureAttachedChildren();
+                }
+
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView,
+                                                 int newState) {
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                        storePendingExtents();
+                        if (isStoreUsable()) {
+                            int first = findFirstAttachedPosition();
+                            if (first < mLoadedStart || first >= mLoadedEnd) {
+                                loadVisibleWindow();
+                            }
+                        }
+                    }
+                }
+            };
+
+    private final View.OnLayoutChangeListener mOnLayoutChangeListener =
+            new View.OnLayoutChangeListener() {
+                @Override
+                public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                           int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                    measureAttachedChildren();
+                }
+            };
+
+    /**
+     * @param estimatedItemExtent the extent in pixels assumed for items that have not been laid
+     *                            out yet.
+     */
+    public MeasuredExtentProvider(int estimatedItemExtent) {
+        this(estimatedItemExtent, null, 0);
+    }
+
+    /**
+     * @param estimatedItemExtent the extent in pixels assumed for items that have not been laid
+     *                            out yet, here or in an earlier session.
+     * @param extentCache         file keeping measured extents across sessions, one per list.
+     *                            Only used while the adapter has stable IDs.
+     */
+    public MeasuredExtentProvider(int estimatedItemExtent, @Nullable File extentCache) {
+        this(estimatedItemExtent, extentCache, ExtentStore.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxCachedExtents the most extents kept in {@code extentCache}; the least recently
+     *                         measured are dropped first. Each takes 16 bytes.
+     */
+    public MeasuredExtentProvider(int estimatedItemExtent, @Nullable File extentCache,
+                                  int maxCachedExtents) {
+        if (estimatedItemExtent <= 0) {
+            throw new IllegalArgumentException(
+                    "estimatedItemExtent must be positive: " + estimatedItemExtent);
+        }
+        mEstimatedItemExtent = estimatedItemExtent;
+        mStore = extentCache != null ? new ExtentStore(extentCache, maxCachedExtents) : null;
+        if (mStore != null) {
+            mPendingIds = new long[STORE_BATCH_SIZE];
+            mPendingExtents = new int[STORE_BATCH_SIZE];
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        // Registered before the scroller's own listener, so children are measured first.
+        recyclerView.addOnScrollListener(mOnScrollListener);
+        recyclerView.addOnLayoutChangeListener(mOnLayoutChangeListener);
+        syncAdapter();
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(mOnScrollListener);
+        recyclerView.removeOnLayoutChangeListener(mOnLayoutChangeListener);
+        storePendingExtents();
+        if (mStore != null) {
+            final ExtentStore store = mStore;
+            FastScrollExecutors.background().execute(new Runnable() {
+                @Override
+                public void run() {
+                    store.flush();
+                }
+            });
+        }
+        setAdapter(null);
+        super.onDetachedFromRecyclerView(recyclerView);
+    }
+
+    @Override
+    long getTotalExtent() {
+        syncAdapter();
+        return mTree.total();
+    }
+
+    @Override
+    public int getPositionForOffset(long offset) {
+        syncAdapter();
+        if (offset <= 0) {
+            return 0;
+        }
+        return mTree.indexOf(offset);
+    }
+
+    @Override
+    public long getOffsetForPosition(int position) {
+        syncAdapter();
+        return mTree.prefixSum(position);
+    }
+
+    /**
+     * Records the measured extent of every attached child.
+     */
+    void measureAttachedChildren() {
+        syncAdapter();
+        OrientationHelper helper = getOrientationHelper();
+        if (helper == null) {
+            return;
+        }
+        for (int i = 0, count = mRecyclerView.getChildCount(); i < count; i++) {
+            View child = mRecyclerView.getChildAt(i);
+            int position = mRecyclerView.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || position >= mItemCount) {
+                continue;
+            }
+            int extent = helper.getDecoratedMeasurement(child);
+            if (extent != mExtents[position]) {
+                mTree.add(position, extent - mExtents[position]);
+                mExtents[position] = extent;
+                if (isStoreUsable()) {
+                    addPendingExtent(mAdapter.getItemId(position), extent);
+                }
+            }
+        }
+    }
+
+    private boolean isStoreUsable() {
+        return mStore != null && mAdapter != null && mAdapter.hasStableIds();
+    }
+
+    /**
+     * Reads the stored extents of up to {@link #LOAD_WINDOW} items around the first visible one.
+     */
+    private void loadVisibleWindow() {
+        int count = Math.min(mItemCount, LOAD_WINDOW);
+        int start = Math.max(0, Math.min(findFirstAttachedPosition() - count / 2,
+                mItemCount - count));
+        mLoadedStart = start;
+        mLoadedEnd = start + count;
+        loadStoredExtents(start, count);
+    }
+
+    private int findFirstAttachedPosition() {
+        int first = RecyclerView.NO_POSITION;
+        for (int i = 0, count = mRecyclerView.getChildCount(); i < count; i++) {
+            int position = mRecyclerView.getChildAdapterPosition(mRecyclerView.getChildAt(i));
+            if (position != RecyclerView.NO_POSITION
+                    && (first == RecyclerView.NO_POSITION || position < first)) {
+                first = position;
+            }
+        }
+        return Math.max(0, first);
+    }
+
+    /**
+     * Reads the stored extents of a range of items in the background. IDs are collected here,
+     * since the adapter belongs to the main thread.
+     */
+    private void loadStoredExtents(int positionStart, int itemCount) {
+        if (itemCount == 0) {
+            return;
+        }
+        final ExtentStore store = mStore;
+        final StoredExtentLoad load = new StoredExtentLoad(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            load.mIds[i] = mAdapter.getItemId(positionStart + i);
+            load.mPositions[i] = positionStart + i;
+        }
+        mLoads.add(load);
+        FastScrollExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                store.getAll(load.mIds, load.mExtents, load.mIds.length);
+                FastScrollExecutors.mainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        applyStoredExtents(load);
+                    }
+                });
+            }
+        });
+    }
+
+    private void applyStoredExtents(StoredExtentLoad load) {
+        if (!mLoads.remove(load)) {
+            // Dropped by a reset
+            return;
+        }
+        int firstChanged = mItemCount;
+        for (int i = 0; i < load.mPositions.length; i++) {
+            int position = load.mPositions[i];
+            int extent = load.mExtents[i];
+            // Items measured in the meantime keep their fresh extent.
+            if (position >= 0 && extent > 0 && mExtents[position] == mEstimatedItemExtent) {
+                mExtents[position] = extent;
+                firstChanged = Math.min(firstChanged, position);
+            }
+        }
+        if (firstChanged < mItemCount) {
+            mTree.resetFrom(mExtents, mItemCount, firstChanged);
+        }
+        // A measurement that happened to equal the estimate was just overwritten.
+        measureAttachedChildren();
+    }
+
+    private void addPendingExtent(long id, int extent) {
+        mPendingIds[mPendingCount] = id;
+        mPendingExtents[mPendingCount] = extent;
+        if (++mPendingCount == STORE_BATCH_SIZE) {
+            storePendingExtents();
+        }
+    }
+
+    /**
+     * Hands the batch of new measurements to the background thread.
+     */
+    private void storePendingExtents() {
+        if (mPendingCount == 0) {
+            return;
+        }
+        final ExtentStore store = mStore;
+        final long[] ids = Arrays.copyOf(mPendingIds, mPendingCount);
+        final int[] extents = Arrays.copyOf(mPendingExtents, mPendingCount);
+        mPendingCount = 0;
+        FastScrollExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                store.putAll(ids, extents, ids.length);
+            }
+        });
+    }
+
+    private void syncAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != mAdapter) {
+            setAdapter(adapter);
+        }
+    }
+
+    private void setAdapter(RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+        resetExtents();
+    }
+
+    private void resetExtents() {
+        // Positions are meaningless after a reset.
+        mLoads.clear();
+        mLoadedStart = 0;
+        mLoadedEnd = 0;
+        mItemCount = mAdapter == null ? 0 : mAdapter.getItemCount();
+        ensureCapacity(mItemCount);
+        Arrays.fill(mExtents, 0, mItemCount, mEstimatedItemExtent);
+        mTree.reset(mExtents, mItemCount);
+        if (isStoreUsable()) {
+            // Written before the read below, on the same thread, so it sees them.
+            storePendingExtents();
+            loadVisibleWindow();
+        }
+    }
+
+    private void insertExtents(int positionStart, int itemCount) {
+        for (int i = 0, count = mLoads.size(); i < count; i++) {
+            mLoads.get(i).insert(positionStart, itemCount);
+        }
+        mLoadedStart = StoredExtentLoad.insert(mLoadedStart, positionStart, itemCount);
+        mLoadedEnd = StoredExtentLoad.insert(mLoadedEnd, positionStart, itemCount);
+        openGap(positionStart, itemCount);
+        Arrays.fill(mExtents, positionStart, positionStart + itemCount, mEstimatedItemExtent);
+        mTree.resetFrom(mExtents, mItemCount, positionStart);
+        if (isStoreUsable()) {
+            loadStoredExtents(positionStart, Math.min(itemCount, LOAD_WINDOW));
+        }
+    }
+
+    private void removeExtents(int positionStart, int itemCount) {
+        for (int i = 0, count = mLoads.size(); i < count; i++) {
+            mLoads.get(i).remove(positionStart, itemCount);
+        }
+        mLoadedStart = StoredExtentLoad.remove(mLoadedStart, positionStart, itemCount);
+        mLoadedEnd = StoredExtentLoad.remove(mLoadedEnd, positionStart, itemCount);
+        closeGap(positionStart, itemCount);
+        mTree.resetFrom(mExtents, mItemCount, positionStart);
+    }
+
+    private void moveExtents(int fromPosition, int toPosition, int itemCount) {
+        for (int i = 0, count = mLoads.size(); i < count; i++) {
+            mLoads.get(i).move(fromPosition, toPosition, itemCount);
+        }
+        int[] moved = new int[itemCount];
+        System.arraycopy(mExtents, fromPosition, moved, 0, itemCount);
+        closeGap(fromPosition, itemCount);
+        openGap(toPosition, itemCount);
+        System.arraycopy(moved, 0, mExtents, toPosition, itemCount);
+        mTree.resetFrom(mExtents, mItemCount, Math.min(fromPosition, toPosition));
+    }
+
+    private void openGap(int positionStart, int itemCount) {
+        ensureCapacity(mItemCount + itemCount);
+        System.arraycopy(mExtents, positionStart, mExtents, positionStart + itemCount,
+                mItemCount - positionStart);
+        mItemCount += itemCount;
+    }
+
+    private void closeGap(int positionStart, int itemCount) {
+        System.arraycopy(mExtents, positionStart + itemCount, mExtents, positionStart,
+                mItemCount - positionStart - itemCount);
+        mItemCount -= itemCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (mExtents.length < capacity) {
+            int[] extents = new int[Math.max(capacity, mExtents.length + (mExtents.length >> 1))];
+            System.arraycopy(mExtents, 0, extents, 0, mExtents.length);
+            mExtents = extents;
+        }
+    }
+
+    /**
+     * Stored extents being read for a set of items, whose positions follow the structural changes
+     * made until the result is applied.
+     */
+    private static final class StoredExtentLoad {
+
+        final long[] mIds;
+        // NO_POSITION once the item has been removed
+        final int[] mPositions;
+        final int[] mExtents;
+
+        StoredExtentLoad(int itemCount) {
+            mIds = new long[itemCount];
+            mPositions = new int[itemCount];
+            mExtents = new int[itemCount];
+        }
+
+        void insert(int positionStart, int itemCount) {
+            for (int i = 0; i < mPositions.length; i++) {
+                mPositions[i] = insert(mPositions[i], positionStart, itemCount);
+            }
+        }
+
+        void remove(int positionStart, int itemCount) {
+            for (int i = 0; i < mPositions.length; i++) {
+                int position = mPositions[i];
+                if (position >= positionStart + itemCount) {
+                    mPositions[i] = position - itemCount;
+                } else if (position >= positionStart) {
+                    mPositions[i] = RecyclerView.NO_POSITION;
+                }
+            }
+        }
+
+        void move(int fromPosition, int toPosition, int itemCount) {
+            for (int i = 0; i < mPositions.length; i++) {
+                int position = mPositions[i];
+                if (position == RecyclerView.NO_POSITION) {
+                    continue;
+                }
+                if (position >= fromPosition && position < fromPosition + itemCount) {
+                    mPositions[i] = toPosition + position - fromPosition;
+                } else {
+                    // Taken out at fromPosition, then put back in at toPosition
+                    int remaining = position >= fromPosition + itemCount
+                            ? position - itemCount : position;
+                    mPositions[i] = insert(remaining, toPosition, itemCount);
+                }
+            }
+        }
+
+        static int insert(int position, int positionStart, int itemCount) {
+            return position >= positionStart ? position + itemCount : position;
+        }
+
+        /**
+         * @return where {@code position} ends up; removed positions end up at the gap.
+         */
+        static int remove(int position, int positionStart, int itemCount) {
+            if (position >= positionStart + itemCount) {
+                return position - itemCount;
+            }
+            return Math.min(position, positionStart);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Told which adapter positions a fast thumb drag is predicted to land on, so that data or images
+ * for them can be loaded before they are bound.
+ */
+public interface OnDragPrefetchListener {
+
+    /**
+     * Called on the main thread whenever the predicted landing range changes. A later call
+     * supersedes the earlier range.
+     *
+     * @param firstPosition the first predicted adapter position, inclusive.
+     * @param lastPosition  the last predicted adapter position, inclusive.
+     */
+    void onDragPrefetch(int firstPosition, int lastPosition);
+}
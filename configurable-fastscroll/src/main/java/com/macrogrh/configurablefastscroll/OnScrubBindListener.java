@@ -0,0 +1,23 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Lets an adapter skip expensive binding while the thumb is dragged so fast that rows only fly
+ * past, e.g. by binding placeholders instead of loading images.
+ */
+public interface OnScrubBindListener {
+
+    /**
+     * The thumb is dragged fast; bind cheap placeholder content until
+     * {@link #onLightweightBindFinished} is called.
+     */
+    void onLightweightBindStarted();
+
+    /**
+     * The drag slowed down or ended; bind fully again. Right after this call the scroller
+     * rebinds the visible items with {@link ConfigurableFastScroll#PAYLOAD_FULL_BIND}.
+     *
+     * @param firstPosition the first visible adapter position, or -1 if nothing is visible.
+     * @param lastPosition  the last visible adapter position, inclusive, or -1.
+     */
+    void onLightweightBindFinished(int firstPosition, int lastPosition);
+}
@@ -0,0 +1,115 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Turns the stream of drag targets of a scrub into a few page loads. The pages under the target
+ * are requested once the target has rested for {@link #LOAD_DEBOUNCE_MS}, or when the drag ends;
+ * requested pages the target has since left are cancelled right away.
+ */
+final class PageRequester {
+
+    static final int LOAD_DEBOUNCE_MS = 150;
+
+    private static final int NO_PAGE = -1;
+
+    private final PagedDataSource mDataSource;
+    private final DeadlineScheduler mLoadScheduler;
+
+    private int mTargetFirstPage = NO_PAGE;
+    private int mTargetLastPage = NO_PAGE;
+    private int mRequestedFirstPage = NO_PAGE;
+    private int mRequestedLastPage = NO_PAGE;
+    private boolean mScrubbing = false;
+
+    PageRequester(PagedDataSource dataSource, DeadlineScheduler.Timer timer) {
+        mDataSource = dataSource;
+        mLoadScheduler = new DeadlineScheduler(new Runnable() {
+            @Override
+            public void run() {
+                requestTarget();
+            }
+        }, timer);
+    }
+
+    void onScrubStarted() {
+        if (!mScrubbing) {
+            mScrubbing = true;
+            mDataSource.onScrubbingChanged(true);
+        }
+    }
+
+    /**
+     * The scrub currently shows positions {@code firstPosition} to {@code lastPosition}.
+     */
+    void onTarget(int firstPosition, int lastPosition) {
+        int pageSize = Math.max(1, mDataSource.getPageSize());
+        int firstPage = Math.max(0, firstPosition) / pageSize;
+        int lastPage = Math.max(firstPosition, lastPosition) / pageSize;
+        if (firstPage == mTargetFirstPage && lastPage == mTargetLastPage) {
+            return;
+        }
+        mTargetFirstPage = firstPage;
+        mTargetLastPage = lastPage;
+        cancelRequestedOutsideTarget();
+        mLoadScheduler.schedule(LOAD_DEBOUNCE_MS);
+    }
+
+    void onScrubEnded() {
+        if (!mScrubbing) {
+            return;
+        }
+        mScrubbing = false;
+        mLoadScheduler.cancel();
+        requestTarget();
+        mDataSource.onScrubbingChanged(false);
+    }
+
+    /**
+     * Cancels every requested page; called when the scroller is detached.
+     */
+    void cancel() {
+        mLoadScheduler.cancel();
+        mTargetFirstPage = NO_PAGE;
+        mTargetLastPage = NO_PAGE;
+        cancelRequestedOutsideTarget();
+        if (mScrubbing) {
+            mScrubbing = false;
+            mDataSource.onScrubbingChanged(false);
+        }
+    }
+
+    private void requestTarget() {
+        if (mTargetFirstPage == NO_PAGE) {
+            return;
+        }
+        for (int page = mTargetFirstPage; page <= mTargetLastPage; page++) {
+            if (!isRequested(page)) {
+                mDataSource.loadPage(page);
+            }
+        }
+        mRequestedFirstPage = mTargetFirstPage;
+        mRequestedLastPage = mTargetLastPage;
+    }
+
+    private void cancelRequestedOutsideTarget() {
+        if (mRequestedFirstPage == NO_PAGE) {
+            return;
+        }
+        for (int page = mRequestedFirstPage; page <= mRequestedLastPage; page++) {
+            if (page < mTargetFirstPage || page > mTargetLastPage) {
+                mDataSource.cancelPageLoad(page);
+            }
+        }
+        // Whatever is still requested lies inside the target.
+        mRequestedFirstPage = Math.max(mRequestedFirstPage, mTargetFirstPage);
+        mRequestedLastPage = Math.min(mRequestedLastPage, mTargetLastPage);
+        if (mTargetFirstPage == NO_PAGE || mRequestedFirstPage > mRequestedLastPage) {
+            mRequestedFirstPage = NO_PAGE;
+            mRequestedLastPage = NO_PAGE;
+        }
+    }
+
+    private boolean isRequested(int page) {
+        return mRequestedFirstPage != NO_PAGE
+                && page >= mRequestedFirstPage && page <= mRequestedLastPage;
+    }
+}
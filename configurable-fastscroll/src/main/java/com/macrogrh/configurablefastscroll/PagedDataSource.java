@@ -0,0 +1,39 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Data behind a list that only keeps some pages in memory. The adapter is expected to report
+ * {@link #getTotalCount()} items and to bind placeholders for rows whose page is not loaded.
+ * <p>
+ * While the thumb is being scrubbed the scroller asks only for the pages at the drag target, once
+ * the drag has rested there briefly, and cancels pages it has scrubbed past. Rows bound during a
+ * scrub should therefore not trigger loads on their own; see {@link #onScrubbingChanged}.
+ */
+public interface PagedDataSource {
+
+    /**
+     * @return the declared number of items, loaded or not.
+     */
+    int getTotalCount();
+
+    /**
+     * @return the number of items per page; page {@code n} starts at {@code n * pageSize}.
+     */
+    int getPageSize();
+
+    /**
+     * Starts loading {@code page} unless it is loaded or loading already.
+     */
+    void loadPage(int page);
+
+    /**
+     * The target has moved off {@code page} before it was needed. Abandon its load if it is still
+     * in flight; pages that have finished loading can be ignored.
+     */
+    void cancelPageLoad(int page);
+
+    /**
+     * Called when a thumb drag starts and ends. While scrubbing, rows of pages that are not
+     * loaded should show placeholders without requesting their page.
+     */
+    void onScrubbingChanged(boolean scrubbing);
+}
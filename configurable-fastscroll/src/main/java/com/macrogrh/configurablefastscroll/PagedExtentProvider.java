@@ -0,0 +1,20 @@
+package com.macrogrh.configurablefastscroll;
+
+/**
+ * Fixed-extent mapping over the declared total of a {@link PagedDataSource}, so the thumb covers
+ * every item whether or not its page has been loaded.
+ */
+class PagedExtentProvider extends FixedExtentProvider {
+
+    private final PagedDataSource mDataSource;
+
+    PagedExtentProvider(PagedDataSource dataSource, int itemExtent) {
+        super(itemExtent);
+        mDataSource = dataSource;
+    }
+
+    @Override
+    int getItemCount() {
+        return mDataSource.getTotalCount();
+    }
+}
@@ -0,0 +1,177 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Default extent provider that forwards to the RecyclerView's own scroll computation. Positions
+ * are mapped through the average item extent, which is only as good as the LayoutManager's
+ * estimate.
+ * <p>
+ * The LayoutManager computes the range by walking its children, so it is cached until the next
+ * layout pass or adapter change rather than recomputed for every scroll callback.
+ * <p>
+ * Horizontal offsets are measured from the start edge, so in a right-to-left layout offset 0 is
+ * the rightmost position.
+ */
+class RecyclerViewExtentProvider implements ScrollExtentProvider {
+
+    @RecyclerView.Orientation
+    private final int mOrientation;
+    private RecyclerView mRecyclerView;
+    private RecyclerView.Adapter<?> mAdapter;
+    private long mScrollRange;
+    private boolean mScrollRangeValid = false;
+
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver =
+            new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    mScrollRangeValid = false;
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount,
+                                               Object payload) {
+                    // After the scroller's own rebind, the layout pass that follows decides.
+                    if (payload != ConfigurableFastScroll.PAYLOAD_FULL_BIND) {
+                        mScrollRangeValid = false;
+                    }
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    mScrollRangeValid = false;
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    mScrollRangeValid = false;
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    mScrollRangeValid = false;
+                }
+            };
+
+    RecyclerViewExtentProvider() {
+        this(RecyclerView.VERTICAL);
+    }
+
+    RecyclerViewExtentProvider(@RecyclerView.Orientation int orientation) {
+        mOrientation = orientation;
+    }
+
+    // Called for every layout pass, including the ones caused by a size change.
+    private final View.OnLayoutChangeListener mOnLayoutChangeListener =
+            new View.OnLayoutChangeListener() {
+                @Override
+                public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                           int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                    mScrollRangeValid = false;
+                }
+            };
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        recyclerView.addOnLayoutChangeListener(mOnLayoutChangeListener);
+        syncAdapter();
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnLayoutChangeListener(mOnLayoutChangeListener);
+        setAdapter(null);
+        mRecyclerView = null;
+    }
+
+    @Override
+    public long computeScrollRange() {
+        if (mRecyclerView == null) {
+            return 0;
+        }
+        syncAdapter();
+        if (!mScrollRangeValid) {
+            mScrollRange = mOrientation == RecyclerView.HORIZONTAL
+                    ? mRecyclerView.computeHorizontalScrollRange()
+                    : mRecyclerView.computeVerticalScrollRange();
+            mScrollRangeValid = true;
+        }
+        return mScrollRange;
+    }
+
+    @Override
+    public long computeScrollOffset() {
+        if (mRecyclerView == null) {
+            return 0;
+        }
+        if (mOrientation != RecyclerView.HORIZONTAL) {
+            return mRecyclerView.computeVerticalScrollOffset();
+        }
+        int offset = mRecyclerView.computeHorizontalScrollOffset();
+        if (ViewCompat.getLayoutDirection(mRecyclerView) == ViewCompat.LAYOUT_DIRECTION_RTL) {
+            // The RecyclerView reports it from the left edge, like a View scroll bar.
+            return Math.max(0, computeScrollRange()
+                    - mRecyclerView.computeHorizontalScrollExtent() - offset);
+        }
+        return offset;
+    }
+
+    @Override
+    public int getPositionForOffset(long offset) {
+        int itemCount = getItemCount();
+        long contentLength = getContentLength();
+        if (itemCount == 0 || contentLength <= 0 || offset <= 0) {
+            return 0;
+        }
+        return (int) Math.min(itemCount - 1, offset * itemCount / contentLength);
+    }
+
+    @Override
+    public long getOffsetForPosition(int position) {
+        int itemCount = getItemCount();
+        if (itemCount == 0) {
+            return 0;
+        }
+        return getContentLength() * position / itemCount;
+    }
+
+    private long getContentLength() {
+        if (mOrientation == RecyclerView.HORIZONTAL) {
+            return computeScrollRange() - mRecyclerView.getPaddingLeft()
+                    - mRecyclerView.getPaddingRight();
+        }
+        return computeScrollRange() - mRecyclerView.getPaddingTop()
+                - mRecyclerView.getPaddingBottom();
+    }
+
+    private void syncAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != mAdapter) {
+            setAdapter(adapter);
+        }
+    }
+
+    private void setAdapter(RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+        mScrollRangeValid = false;
+    }
+
+    private int getItemCount() {
+        if (mRecyclerView == null || mRecyclerView.getAdapter() == null) {
+            return 0;
+        }
+        return mRecyclerView.getAdapter().getItemCount();
+    }
+}
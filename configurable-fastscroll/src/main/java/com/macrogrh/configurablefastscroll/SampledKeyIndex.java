@@ -0,0 +1,78 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Immutable sample of every Nth key of a sorted adapter. A lookup binary-searches the samples,
+ * then the keys between two neighbouring samples, so it reads O(log N) keys and the index holds
+ * at most {@link #MAX_SAMPLES} of them however long the list is.
+ */
+final class SampledKeyIndex {
+
+    static final int MAX_SAMPLES = 4096;
+    private static final int MIN_STRIDE = 16;
+
+    private final long[] mSamples;
+    private final int mStride;
+    private final int mItemCount;
+
+    private SampledKeyIndex(long[] samples, int stride, int itemCount) {
+        mSamples = samples;
+        mStride = stride;
+        mItemCount = itemCount;
+    }
+
+    /**
+     * Reads the sampled keys of the first {@code itemCount} positions. Runs off the main thread.
+     */
+    static SampledKeyIndex create(KeyExtractor extractor, int itemCount) {
+        int stride = Math.max(MIN_STRIDE, (int) ((itemCount + (long) MAX_SAMPLES - 1) / MAX_SAMPLES));
+        int sampleCount = (int) ((itemCount + (long) stride - 1) / stride);
+        long[] samples = new long[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            samples[i] = extractor.getKey(i * stride);
+        }
+        return new SampledKeyIndex(samples, stride, itemCount);
+    }
+
+    int getItemCount() {
+        return mItemCount;
+    }
+
+    /**
+     * @return the first position whose key is at least {@code key}, the last position if every
+     * key is smaller, or {@link RecyclerView#NO_POSITION} for an empty list.
+     */
+    int findPosition(long key, KeyExtractor extractor) {
+        if (mItemCount == 0) {
+            return RecyclerView.NO_POSITION;
+        }
+        // The first sample not below the key; the answer lies after the sample before it.
+        int low = 0;
+        int high = mSamples.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mSamples[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int sample = low;
+        if (sample == 0) {
+            return 0;
+        }
+        // Keys in (previous sample, sample] are only known to be in range; search them directly.
+        int first = (sample - 1) * mStride + 1;
+        int last = sample < mSamples.length ? sample * mStride : mItemCount;
+        while (first < last) {
+            int mid = (first + last) >>> 1;
+            if (extractor.getKey(mid) < key) {
+                first = mid + 1;
+            } else {
+                last = mid;
+            }
+        }
+        return Math.min(first, mItemCount - 1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Supplies the scroll range and offset used to place the thumb and to map a drag back to the
+ * list. The default implementation asks the {@link RecyclerView}, which only estimates these
+ * values from the attached children; {@link FixedExtentProvider} and
+ * {@link MeasuredExtentProvider} answer exactly from per-item extents.
+ * <p>
+ * Offsets are in pixels along the scroll axis, with item 0 starting at offset 0.
+ */
+public interface ScrollExtentProvider {
+
+    void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView);
+
+    void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView);
+
+    /**
+     * @return the total length of the content, including the RecyclerView's padding.
+     */
+    long computeScrollRange();
+
+    /**
+     * @return the offset of the first visible pixel below the RecyclerView's start padding.
+     */
+    long computeScrollOffset();
+
+    /**
+     * @return the adapter position of the item covering {@code offset}.
+     */
+    int getPositionForOffset(long offset);
+
+    /**
+     * @return the offset at which the item at {@code position} starts.
+     */
+    long getOffsetForPosition(int position);
+}
@@ -0,0 +1,73 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import java.util.Arrays;
+
+/**
+ * Draws the app's label for the position a deferred scrub would land on next to the thumb.
+ * Labels are laid out once and kept in a small direct-mapped cache, so moving back and forth over
+ * the same positions neither lays out text again nor allocates.
+ */
+final class ScrubPreview {
+
+    // A power of two, so the slot of a position is a mask
+    private static final int CACHE_SIZE = 32;
+
+    private final ScrubPreviewProvider mProvider;
+    private final Drawable mBackground;
+    private final TextPaint mTextPaint;
+    private final int mMinimumSize;
+    private final int mMargin;
+
+    private final int[] mCachedPositions = new int[CACHE_SIZE];
+    private final Layout[] mCachedLabels = new Layout[CACHE_SIZE];
+
+    ScrubPreview(ScrubPreviewProvider provider, Drawable background, TextPaint textPaint,
+                 int minimumSize, int margin) {
+        mProvider = provider;
+        mBackground = background;
+        mTextPaint = textPaint;
+        mMinimumSize = minimumSize;
+        mMargin = margin;
+        clear();
+    }
+
+    /**
+     * Forgets every cached label; called when a scrub starts, as the adapter may have changed.
+     */
+    void clear() {
+        Arrays.fill(mCachedPositions, -1);
+        Arrays.fill(mCachedLabels, null);
+    }
+
+    /**
+     * Draws the preview of {@code position} to the left of a thumb whose left edge is
+     * {@code thumbLeft}.
+     */
+    void draw(Canvas canvas, int position, int thumbLeft, int thumbCenterY, int viewHeight) {
+        if (position < 0) {
+            return;
+        }
+        Layout label = getLabel(position);
+        if (label != null) {
+            SectionBubble.drawBubble(canvas, mBackground, label, mMinimumSize, mMargin,
+                    thumbLeft, thumbCenterY, viewHeight);
+        }
+    }
+
+    private Layout getLabel(int position) {
+        int slot = position & (CACHE_SIZE - 1);
+        if (mCachedPositions[slot] != position) {
+            CharSequence text = mProvider.getPreviewText(position);
+            mCachedPositions[slot] = position;
+            mCachedLabels[slot] = TextUtils.isEmpty(text)
+                    ? null : SectionBubble.layoutLabel(text, mTextPaint);
+        }
+        return mCachedLabels[slot];
+    }
+}
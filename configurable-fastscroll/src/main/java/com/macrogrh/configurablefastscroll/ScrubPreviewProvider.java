@@ -0,0 +1,20 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Supplies the label shown next to the thumb while it is scrubbed in
+ * {@link ConfigurableFastScroll#DRAG_MODE_DEFERRED}, where the list itself only moves once the
+ * thumb rests or is released.
+ */
+public interface ScrubPreviewProvider {
+
+    /**
+     * Called on the main thread whenever the thumb reaches a position it has not shown recently,
+     * so it must be cheap, e.g. a title or a date already held by the adapter.
+     *
+     * @return a short label for the item at {@code position}, or null to show none.
+     */
+    @Nullable
+    CharSequence getPreviewText(int position);
+}
@@ -0,0 +1,180 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.widget.SectionIndexer;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Draws the label of the current section next to the thumb while it is being dragged. The
+ * section table is rebuilt on {@link FastScrollExecutors#background()} whenever the adapter
+ * changes; drawing only reads the last published {@link SectionIndex}.
+ */
+final class SectionBubble {
+
+    private static final int REBUILD_DELAY_MS = 100;
+
+    private final SectionIndexer mIndexer;
+    private final Drawable mBackground;
+    private final TextPaint mTextPaint;
+    private final int mMinimumSize;
+    private final int mMargin;
+
+    private RecyclerView mRecyclerView;
+    private RecyclerView.Adapter<?> mAdapter;
+    private SectionIndex mSectionIndex = SectionIndex.EMPTY;
+    private int mGeneration = 0;
+
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver =
+            new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    scheduleRebuild();
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    scheduleRebuild();
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    scheduleRebuild();
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    scheduleRebuild();
+                }
+            };
+
+    private final Runnable mRebuildRunnable = new Runnable() {
+        @Override
+        public void run() {
+            rebuild();
+        }
+    };
+
+    SectionBubble(SectionIndexer indexer, Drawable background, TextPaint textPaint,
+                  int minimumSize, int margin) {
+        mIndexer = indexer;
+        mBackground = background;
+        mTextPaint = textPaint;
+        mMinimumSize = minimumSize;
+        mMargin = margin;
+    }
+
+    void attachToRecyclerView(RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        setAdapter(recyclerView.getAdapter());
+        rebuild();
+    }
+
+    void detachFromRecyclerView() {
+        FastScrollExecutors.mainHandler().removeCallbacks(mRebuildRunnable);
+        setAdapter(null);
+        mRecyclerView = null;
+        // Drop any build still in flight.
+        mGeneration++;
+    }
+
+    /**
+     * Draws the bubble for {@code position} to the left of a thumb whose left edge is
+     * {@code thumbLeft}.
+     */
+    void draw(Canvas canvas, int position, int thumbLeft, int thumbCenterY, int viewHeight) {
+        syncAdapter();
+        SectionIndex index = mSectionIndex;
+        int section = index.getSectionForPosition(position);
+        if (section < 0) {
+            return;
+        }
+        drawBubble(canvas, mBackground, index.getLabel(section), mMinimumSize, mMargin,
+                thumbLeft, thumbCenterY, viewHeight);
+    }
+
+    /**
+     * Lays out {@code label} as wide as its longest line, for {@link #drawBubble}.
+     */
+    @SuppressWarnings("deprecation")
+    static Layout layoutLabel(CharSequence label, TextPaint paint) {
+        int width = (int) Math.ceil(Layout.getDesiredWidth(label, paint));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(label, 0, label.length(), paint, width)
+                    .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                    .setLineSpacing(0f, 1f)
+                    .setIncludePad(false)
+                    .build();
+        }
+        return new StaticLayout(label, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+    }
+
+    /**
+     * Draws {@code label} on {@code background}, at least {@code minimumSize} square, left of
+     * {@code thumbLeft} and centered on the thumb as far as the view allows.
+     */
+    static void drawBubble(Canvas canvas, Drawable background, Layout label, int minimumSize,
+                           int margin, int thumbLeft, int thumbCenterY, int viewHeight) {
+        int padding = minimumSize / 4;
+        int width = Math.max(minimumSize, label.getWidth() + 2 * padding);
+        int height = Math.max(minimumSize, label.getHeight() + 2 * padding);
+        int left = thumbLeft - margin - width;
+        int top = Math.max(0, Math.min(viewHeight - height, thumbCenterY - height / 2));
+
+        background.setBounds(left, top, left + width, top + height);
+        background.draw(canvas);
+
+        int saveCount = canvas.save();
+        canvas.translate(left + (width - label.getWidth()) / 2f,
+                top + (height - label.getHeight()) / 2f);
+        label.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private void syncAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != mAdapter) {
+            setAdapter(adapter);
+            scheduleRebuild();
+        }
+    }
+
+    private void setAdapter(RecyclerView.Adapter<?> adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+    }
+
+    private void scheduleRebuild() {
+        FastScrollExecutors.mainHandler().removeCallbacks(mRebuildRunnable);
+        FastScrollExecutors.mainHandler().postDelayed(mRebuildRunnable, REBUILD_DELAY_MS);
+    }
+
+    private void rebuild() {
+        final int generation = ++mGeneration;
+        final TextPaint paint = new TextPaint(mTextPaint);
+        FastScrollExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final SectionIndex index = SectionIndex.create(mIndexer, paint);
+                FastScrollExecutors.mainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mGeneration) {
+                            mSectionIndex = index;
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
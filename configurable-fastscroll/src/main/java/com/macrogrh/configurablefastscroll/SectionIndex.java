@@ -0,0 +1,70 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.text.Layout;
+import android.text.TextPaint;
+import android.widget.SectionIndexer;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a {@link SectionIndexer}: a sorted table of section start positions and
+ * a pre-built text layout for each label. Looking up the label for a position is a binary search
+ * that neither allocates nor calls back into the adapter.
+ */
+final class SectionIndex {
+
+    static final SectionIndex EMPTY = new SectionIndex(new int[0], new Layout[0]);
+
+    private final int[] mSectionStarts;
+    private final Layout[] mLabels;
+
+    private SectionIndex(int[] sectionStarts, Layout[] labels) {
+        mSectionStarts = sectionStarts;
+        mLabels = labels;
+    }
+
+    /**
+     * Queries {@code indexer} and lays out every label with {@code paint}. Runs off the main
+     * thread, so {@code paint} must not be shared with the UI.
+     */
+    static SectionIndex create(SectionIndexer indexer, TextPaint paint) {
+        Object[] sections = indexer.getSections();
+        if (sections == null || sections.length == 0) {
+            return EMPTY;
+        }
+        int[] starts = new int[sections.length];
+        Layout[] labels = new Layout[sections.length];
+        int count = 0;
+        for (int i = 0; i < sections.length; i++) {
+            int start = indexer.getPositionForSection(i);
+            if (count > 0 && start < starts[count - 1]) {
+                continue;
+            }
+            if (count > 0 && start == starts[count - 1]) {
+                // The previous section is empty; the later one owns this position.
+                count--;
+            }
+            starts[count] = start;
+            labels[count] = SectionBubble.layoutLabel(String.valueOf(sections[i]), paint);
+            count++;
+        }
+        return new SectionIndex(Arrays.copyOf(starts, count), Arrays.copyOf(labels, count));
+    }
+
+    int getSectionCount() {
+        return mSectionStarts.length;
+    }
+
+    /**
+     * @return the index of the section containing {@code position}, or -1 if the position lies
+     * before the first section.
+     */
+    int getSectionForPosition(int position) {
+        int index = Arrays.binarySearch(mSectionStarts, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    Layout getLabel(int section) {
+        return mLabels[section];
+    }
+}
@@ -0,0 +1,145 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * Draws the thumb from bitmaps of its normal and pressed states, rendered once at the size it is
+ * drawn at, instead of rasterizing the drawable on every frame. Scrollers using the same drawable
+ * resource, tint, size and density share the bitmaps. Main thread only.
+ */
+final class ThumbBitmapCache {
+
+    private static final int[] PRESSED_STATE_SET = new int[]{android.R.attr.state_pressed};
+    private static final int[] EMPTY_STATE_SET = new int[]{};
+
+    private static final HashMap<Key, Entry> sEntries = new HashMap<>();
+
+    private final int mDrawableRes;
+    private final int mTint;
+    // Carries the fade alpha; the bitmaps are rendered at full alpha.
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    @Nullable
+    private Entry mEntry;
+
+    ThumbBitmapCache(int drawableRes, int tint) {
+        mDrawableRes = drawableRes;
+        mTint = tint;
+    }
+
+    /**
+     * Draws {@code drawable} in its normal or pressed state at the given bounds, rendering the
+     * bitmaps first if the size or density differs from the last call.
+     */
+    void draw(Canvas canvas, Drawable drawable, int left, int top, int width, int height,
+              boolean pressed, int alpha, int densityDpi) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (mEntry == null || !mEntry.mKey.matches(mDrawableRes, mTint, width, height,
+                densityDpi)) {
+            release();
+            mEntry = acquire(new Key(mDrawableRes, mTint, width, height, densityDpi), drawable);
+        }
+        mPaint.setAlpha(alpha);
+        canvas.drawBitmap(pressed ? mEntry.mPressed : mEntry.mNormal, left, top, mPaint);
+    }
+
+    /**
+     * Drops this scroller's reference to the bitmaps; they are freed once no scroller uses them.
+     */
+    void release() {
+        if (mEntry == null) {
+            return;
+        }
+        if (--mEntry.mRefCount == 0) {
+            sEntries.remove(mEntry.mKey);
+        }
+        mEntry = null;
+    }
+
+    private static Entry acquire(Key key, Drawable drawable) {
+        Entry entry = sEntries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, render(drawable, EMPTY_STATE_SET, key),
+                    render(drawable, PRESSED_STATE_SET, key));
+            sEntries.put(key, entry);
+        }
+        entry.mRefCount++;
+        return entry;
+    }
+
+    private static Bitmap render(Drawable drawable, int[] stateSet, Key key) {
+        Bitmap bitmap = Bitmap.createBitmap(key.mWidth, key.mHeight, Bitmap.Config.ARGB_8888);
+        bitmap.setDensity(key.mDensityDpi);
+        int[] state = drawable.getState();
+        int alpha = drawable.getAlpha();
+        drawable.setState(stateSet);
+        drawable.setAlpha(255);
+        drawable.setBounds(0, 0, key.mWidth, key.mHeight);
+        drawable.draw(new Canvas(bitmap));
+        drawable.setState(state);
+        drawable.setAlpha(alpha);
+        return bitmap;
+    }
+
+    private static final class Entry {
+        final Key mKey;
+        final Bitmap mNormal;
+        final Bitmap mPressed;
+        int mRefCount = 0;
+
+        Entry(Key key, Bitmap normal, Bitmap pressed) {
+            mKey = key;
+            mNormal = normal;
+            mPressed = pressed;
+        }
+    }
+
+    private static final class Key {
+        final int mDrawableRes;
+        final int mTint;
+        final int mWidth;
+        final int mHeight;
+        final int mDensityDpi;
+
+        Key(int drawableRes, int tint, int width, int height, int densityDpi) {
+            mDrawableRes = drawableRes;
+            mTint = tint;
+            mWidth = width;
+            mHeight = height;
+            mDensityDpi = densityDpi;
+        }
+
+        boolean matches(int drawableRes, int tint, int width, int height, int densityDpi) {
+            return mDrawableRes == drawableRes && mTint == tint && mWidth == width
+                    && mHeight == height && mDensityDpi == densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return other.matches(mDrawableRes, mTint, mWidth, mHeight, mDensityDpi);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mDrawableRes;
+            result = 31 * result + mTint;
+            result = 31 * result + mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + mDensityDpi;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.RequiresApi;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Shows the thumb as a small view in the RecyclerView's {@link android.view.ViewGroupOverlay}.
+ * Moves only set its translation and fades run as {@link android.view.ViewPropertyAnimator} alpha
+ * animations on a hardware layer, so neither re-records the list; the thumb drawable's own state
+ * changes only redraw the thumb view. The view draws the drawable itself and never goes through
+ * {@link ThumbBitmapCache}: its display list already keeps the thumb between state changes.
+ */
+@RequiresApi(18)
+final class ThumbOverlay {
+
+    @VisibleForTesting
+    final View mThumbView;
+    private ViewGroup mHost;
+
+    ThumbOverlay(Context context, Drawable thumb) {
+        mThumbView = new View(context);
+        mThumbView.setBackground(thumb);
+        mThumbView.setAlpha(0);
+        mThumbView.setVisibility(View.INVISIBLE);
+    }
+
+    void attach(ViewGroup host) {
+        mHost = host;
+        mHost.getOverlay().add(mThumbView);
+    }
+
+    void detach() {
+        reset();
+        if (mHost != null) {
+            mHost.getOverlay().remove(mThumbView);
+            mHost = null;
+        }
+    }
+
+    /**
+     * Places the thumb at {@code bounds}, or hides it if it should not be drawn at all.
+     */
+    void update(boolean visible, Rect bounds) {
+        if (!visible) {
+            mThumbView.setVisibility(View.INVISIBLE);
+            return;
+        }
+        if (mThumbView.getWidth() != bounds.width()
+                || mThumbView.getHeight() != bounds.height()) {
+            mThumbView.layout(0, 0, bounds.width(), bounds.height());
+        }
+        mThumbView.setTranslationX(bounds.left);
+        mThumbView.setTranslationY(bounds.top);
+        mThumbView.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * Fades from the current alpha to {@code alpha}, replacing any fade in progress.
+     * {@code endAction} only runs if the fade is not replaced or cancelled.
+     */
+    void fadeTo(float alpha, int duration, Runnable endAction) {
+        mThumbView.animate().cancel();
+        mThumbView.animate()
+                .alpha(alpha)
+                .setDuration(duration)
+                .withLayer()
+                .withEndAction(endAction);
+    }
+
+    /**
+     * Cancels the fade and hides the thumb.
+     */
+    void reset() {
+        mThumbView.animate().cancel();
+        mThumbView.setAlpha(0);
+        mThumbView.setVisibility(View.INVISIBLE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BindModeControllerTest {
+
+    private static final float FAST = BindModeController.FAST_SCREENS_PER_SECOND;
+
+    private final VirtualTimer mTimer = new VirtualTimer();
+    private final RecordingCallback mCallback = new RecordingCallback();
+    private final BindModeController mController = new BindModeController(mCallback, mTimer);
+
+    @Test
+    public void slowDragStaysFull() {
+        for (int frame = 0; frame < 60; frame++) {
+            mTimer.advanceTo(frame * 16L);
+            mController.onDragSpeed(FAST * 0.9f);
+        }
+        mController.onDragEnded();
+        mTimer.advanceTo(10000);
+
+        assertEquals(0, mCallback.mStarted);
+        assertEquals(0, mCallback.mSettled);
+    }
+
+    @Test
+    public void fastDragSettlesOnceAfterRelease() {
+        for (int frame = 0; frame < 60; frame++) {
+            mTimer.advanceTo(frame * 16L);
+            // Dips below the threshold but not to half of it keep lightweight binding.
+            mController.onDragSpeed(frame % 2 == 0 ? FAST * 3 : FAST * 0.6f);
+        }
+        assertEquals(1, mCallback.mStarted);
+        assertTrue(mController.isLightweight());
+
+        mController.onDragEnded();
+        assertEquals(0, mCallback.mSettled);
+        // Settling waits for the posted message, after the landing frame.
+        mTimer.advanceTo(mTimer.uptimeMillis());
+
+        assertEquals(1, mCallback.mSettled);
+        assertFalse(mController.isLightweight());
+        mTimer.advanceTo(10000);
+        assertEquals(1, mCallback.mSettled);
+    }
+
+    @Test
+    public void restingFingerSettles() {
+        mController.onDragSpeed(FAST * 2);
+        mTimer.advanceTo(BindModeController.SETTLE_DELAY_MS - 1);
+        assertEquals(0, mCallback.mSettled);
+
+        mTimer.advanceTo(BindModeController.SETTLE_DELAY_MS);
+        assertEquals(1, mCallback.mSettled);
+
+        // Speeding up again starts a new lightweight phase.
+        mController.onDragSpeed(FAST * 2);
+        assertEquals(2, mCallback.mStarted);
+    }
+
+    private static final class RecordingCallback implements BindModeController.Callback {
+        int mStarted = 0;
+        int mSettled = 0;
+
+        @Override
+        public void onLightweightBindStarted() {
+            mStarted++;
+        }
+
+        @Override
+        public void onSettled() {
+            mSettled++;
+        }
+    }
+}
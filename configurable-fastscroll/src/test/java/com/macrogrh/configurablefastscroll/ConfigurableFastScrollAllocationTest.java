@@ -0,0 +1,207 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.StateListDrawable;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the scroller through scripted drags and a fade and fails if its per-frame paths start
+ * allocating. State transitions (starting a fade, arming the hide timer) go through framework
+ * code and are kept outside of the measured windows.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfigurableFastScrollAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEM_EXTENT = 100;
+    private static final int THUMB_WIDTH = 20;
+    private static final int THUMB_HEIGHT = 100;
+    private static final int FRAMES = 600;
+    private static final long FRAME_NANOS = 16_000_000L;
+    // A single object per frame would already exceed this over the whole sequence.
+    private static final long ALLOCATION_BUDGET_BYTES = 1024;
+
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private final Canvas mCanvas = new Canvas();
+    private RecyclerView mRecyclerView;
+    private ConfigurableFastScroll mScroller;
+    private long mFrameTimeNanos = 0;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+        mRecyclerView.setAdapter(new FixedAdapter(100000, ITEM_EXTENT));
+        // A scroll-by drag moves past a whole screen per frame; keep every view for reuse.
+        mRecyclerView.getRecycledViewPool().setMaxRecycledViews(0, 2 * HEIGHT / ITEM_EXTENT);
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void dragDoesNotAllocate() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_JUMP);
+        assertDragDoesNotAllocate();
+    }
+
+    @Test
+    public void scrollByDragDoesNotAllocate() {
+        // Goes through verticalScrollTo() and RecyclerView.scrollBy() every frame.
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+        assertDragDoesNotAllocate();
+    }
+
+    @Test
+    public void fadeDoesNotAllocate() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_JUMP);
+        runFade();
+        runFade();
+
+        mScroller.hide((int) (FRAMES * FRAME_NANOS / 1_000_000));
+        long before = allocatedBytes();
+        for (int i = 0; i <= FRAMES; i++) {
+            runFrame();
+            mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertTrue("fade allocated " + allocated + " bytes",
+                allocated <= ALLOCATION_BUDGET_BYTES);
+    }
+
+    private void createScroller(@ConfigurableFastScroll.DragMode int dragMode) {
+        StateListDrawable thumb = new StateListDrawable();
+        thumb.addState(new int[]{}, new NoOpDrawable(THUMB_WIDTH, THUMB_HEIGHT));
+        FastScrollStyle style = new FastScrollStyle.Builder(mRecyclerView.getContext())
+                .setThumbDrawable(thumb)
+                .build();
+        mScroller = new ConfigurableFastScroll(mRecyclerView, style,
+                new FixedExtentProvider(ITEM_EXTENT), dragMode,
+                null, 8, null, null, null, null, null, false, null, null);
+        mScroller.setFrameScheduler(mFrameScheduler);
+        mScroller.setEngine(new FastScrollEngine(mFrameScheduler, new StoppedTimer()));
+
+        // Picks up the view size, then shows the thumb at the top of the list.
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        mScroller.updateScrollPosition(0);
+        finishFade();
+    }
+
+    private void assertDragDoesNotAllocate() {
+        MotionEvent[] script = createDragScript();
+
+        // Warm up lazily created state and let the JIT settle.
+        runDrag(script);
+        runDrag(script);
+
+        mScroller.onTouchEvent(mRecyclerView, script[0]);
+        long before = allocatedBytes();
+        for (int i = 1; i < script.length - 1; i++) {
+            mScroller.onTouchEvent(mRecyclerView, script[i]);
+            runFrame();
+            mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        }
+        long allocated = allocatedBytes() - before;
+        mScroller.onTouchEvent(mRecyclerView, script[script.length - 1]);
+
+        assertTrue("drag allocated " + allocated + " bytes",
+                allocated <= ALLOCATION_BUDGET_BYTES);
+    }
+
+    private void runDrag(MotionEvent[] script) {
+        for (int i = 0; i < script.length; i++) {
+            mScroller.onTouchEvent(mRecyclerView, script[i]);
+            runFrame();
+            mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        }
+    }
+
+    private void runFade() {
+        mScroller.hide((int) (FRAMES * FRAME_NANOS / 1_000_000));
+        for (int i = 0; i <= FRAMES; i++) {
+            runFrame();
+            mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        }
+        mScroller.show();
+        finishFade();
+    }
+
+    private void runFrame() {
+        mFrameTimeNanos += FRAME_NANOS;
+        mFrameScheduler.runFrame(mFrameTimeNanos);
+    }
+
+    /**
+     * Runs the first frame of a fade, then one past its longest duration.
+     */
+    private void finishFade() {
+        runFrame();
+        mFrameTimeNanos += 1_000_000_000L;
+        runFrame();
+    }
+
+    /**
+     * Down on the thumb, a sweep to the bottom and back, then up.
+     */
+    private static MotionEvent[] createDragScript() {
+        float x = WIDTH - THUMB_WIDTH / 2f;
+        float startY = THUMB_HEIGHT / 2f;
+        MotionEvent[] script = new MotionEvent[FRAMES + 2];
+        script[0] = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, startY, 0);
+        for (int i = 1; i <= FRAMES; i++) {
+            float progress = i <= FRAMES / 2
+                    ? i / (FRAMES / 2f)
+                    : (FRAMES - i) / (FRAMES / 2f);
+            float y = startY + progress * (HEIGHT - THUMB_HEIGHT);
+            script[i] = MotionEvent.obtain(0, i * 8, MotionEvent.ACTION_MOVE, x, y, 0);
+        }
+        script[FRAMES + 1] = MotionEvent.obtain(0, FRAMES * 8 + 8, MotionEvent.ACTION_UP, x,
+                startY, 0);
+        return script;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Never fires, so the thumb is not hidden while a test drives it.
+     */
+    private static final class StoppedTimer implements DeadlineScheduler.Timer {
+
+        @Override
+        public long uptimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public void postAtTime(Runnable runnable, long uptimeMillis) {
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.StateListDrawable;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks when a deferred drag jumps: once the thumb rests or is released, never on a tap, and
+ * not at all once the drag is cancelled or the scroller is paused or detached.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfigurableFastScrollDeferredTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEM_EXTENT = 100;
+    private static final int THUMB_WIDTH = 20;
+    private static final int THUMB_HEIGHT = 100;
+    private static final long FRAME_NANOS = 16_000_000L;
+    private static final float THUMB_X = WIDTH - THUMB_WIDTH / 2f;
+
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private final VirtualTimer mCommitTimer = new VirtualTimer();
+    private final Canvas mCanvas = new Canvas();
+    private final TestLifecycleOwner mOwner = new TestLifecycleOwner();
+    private RecordingLayoutManager mLayoutManager;
+    private RecyclerView mRecyclerView;
+    private ConfigurableFastScroll mScroller;
+    private long mFrameTimeNanos = 0;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mLayoutManager = new RecordingLayoutManager(context);
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(new FixedAdapter(10000, ITEM_EXTENT));
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+
+        StateListDrawable thumb = new StateListDrawable();
+        thumb.addState(new int[]{}, new NoOpDrawable(THUMB_WIDTH, THUMB_HEIGHT));
+        FastScrollStyle style = new FastScrollStyle.Builder(context)
+                .setThumbDrawable(thumb)
+                .build();
+        mScroller = new ConfigurableFastScroll(mRecyclerView, style,
+                new FixedExtentProvider(ITEM_EXTENT), ConfigurableFastScroll.DRAG_MODE_DEFERRED,
+                null, 0, null, null, null, null, null, false, null, null);
+        mScroller.setFrameScheduler(mFrameScheduler);
+        // The hide deadline runs on a timer of its own that never fires.
+        mScroller.setEngine(new FastScrollEngine(mFrameScheduler, new VirtualTimer()));
+        mScroller.setDeferredCommitTimer(mCommitTimer);
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        mScroller.bindToLifecycle(mOwner);
+
+        // Picks up the view size, then shows the thumb at the top of the list.
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        mScroller.updateScrollPosition(0);
+        runFrame();
+    }
+
+    @Test
+    public void jumpsOnceThumbRests() {
+        dragTo(HEIGHT / 2f);
+        assertEquals(0, mLayoutManager.mJumpCount);
+        assertTrue(mCommitTimer.hasPending());
+
+        mCommitTimer.advanceTo(ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS - 1);
+        assertEquals(0, mLayoutManager.mJumpCount);
+
+        mCommitTimer.advanceTo(ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(1, mLayoutManager.mJumpCount);
+        assertTrue(mLayoutManager.mJumpPosition > 0);
+    }
+
+    @Test
+    public void movingAgainPushesCommitBack() {
+        dragTo(HEIGHT / 2f);
+        mCommitTimer.advanceTo(ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS - 50);
+        move(HEIGHT / 4f, 100);
+        runFrame();
+
+        mCommitTimer.advanceTo(ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(0, mLayoutManager.mJumpCount);
+
+        mCommitTimer.advanceTo(2 * ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(1, mLayoutManager.mJumpCount);
+    }
+
+    @Test
+    public void jumpsOnRelease() {
+        dragTo(HEIGHT / 2f);
+
+        release(HEIGHT / 2f);
+
+        assertEquals(1, mLayoutManager.mJumpCount);
+        assertFalse(mCommitTimer.hasPending());
+        // Resting afterwards does not jump a second time.
+        mCommitTimer.advanceTo(10 * ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(1, mLayoutManager.mJumpCount);
+    }
+
+    @Test
+    public void tapDoesNotJump() {
+        down();
+        release(THUMB_HEIGHT / 2f);
+
+        assertEquals(0, mLayoutManager.mJumpCount);
+        assertFalse(mCommitTimer.hasPending());
+    }
+
+    @Test
+    public void cancelledDragDoesNotJump() {
+        dragTo(HEIGHT / 2f);
+
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 1000,
+                MotionEvent.ACTION_CANCEL, THUMB_X, HEIGHT / 2f, 0));
+
+        assertFalse(mCommitTimer.hasPending());
+        mCommitTimer.advanceTo(10 * ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(0, mLayoutManager.mJumpCount);
+        // The thumb is back on the list's position, ready for the next drag.
+        assertEquals(THUMB_HEIGHT / 2, mScroller.mVerticalThumbCenterY);
+        dragTo(HEIGHT / 2f);
+        release(HEIGHT / 2f);
+        assertEquals(1, mLayoutManager.mJumpCount);
+    }
+
+    @Test
+    public void pauseCancelsCommit() {
+        dragTo(HEIGHT / 2f);
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+
+        assertFalse(mCommitTimer.hasPending());
+        mCommitTimer.advanceTo(10 * ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(0, mLayoutManager.mJumpCount);
+    }
+
+    @Test
+    public void detachCancelsCommit() {
+        dragTo(HEIGHT / 2f);
+
+        mScroller.attachToRecyclerView(null);
+
+        assertFalse(mCommitTimer.hasPending());
+        mCommitTimer.advanceTo(10 * ConfigurableFastScroll.DEFERRED_COMMIT_DELAY_MS);
+        assertEquals(0, mLayoutManager.mJumpCount);
+    }
+
+    /**
+     * Grabs the thumb at the top and moves it to {@code y}, applying the move in one frame.
+     */
+    private void dragTo(float y) {
+        down();
+        move(y, 16);
+        runFrame();
+    }
+
+    private void down() {
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 0,
+                MotionEvent.ACTION_DOWN, THUMB_X, THUMB_HEIGHT / 2f, 0));
+    }
+
+    private void move(float y, long eventTime) {
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, eventTime,
+                MotionEvent.ACTION_MOVE, THUMB_X, y, 0));
+    }
+
+    private void release(float y) {
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 1000,
+                MotionEvent.ACTION_UP, THUMB_X, y, 0));
+    }
+
+    private void runFrame() {
+        mFrameTimeNanos += FRAME_NANOS;
+        mFrameScheduler.runFrame(mFrameTimeNanos);
+    }
+
+    /**
+     * Counts the jumps the scroller makes instead of laying out after each one.
+     */
+    private static final class RecordingLayoutManager extends LinearLayoutManager {
+
+        int mJumpCount = 0;
+        int mJumpPosition = RecyclerView.NO_POSITION;
+
+        RecordingLayoutManager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void scrollToPositionWithOffset(int position, int offset) {
+            mJumpCount++;
+            mJumpPosition = position;
+            super.scrollToPositionWithOffset(position, offset);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.StateListDrawable;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the horizontal thumb is placed, hit and dragged from the start edge, which is the
+ * right edge in a right-to-left layout.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfigurableFastScrollHorizontalTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int RANGE = 10 * WIDTH;
+    private static final int ITEM_COUNT = 108;
+    private static final int THUMB_LENGTH = 100;
+    private static final int THUMB_THICKNESS = 10;
+    private static final long FRAME_NANOS = 16_000_000L;
+    // Center of the thumb at the start, and halfway along the track
+    private static final float START_ALONG = THUMB_LENGTH / 2f;
+    private static final float MIDDLE_ALONG = START_ALONG + (WIDTH - THUMB_LENGTH) / 2f;
+    private static final float THUMB_Y = HEIGHT - THUMB_THICKNESS / 2f;
+
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private final Canvas mCanvas = new Canvas();
+    private final Rect mBounds = new Rect();
+    private RecordingLayoutManager mLayoutManager;
+    private TestRecyclerView mRecyclerView;
+    private ConfigurableFastScroll mScroller;
+    private long mFrameTimeNanos = 0;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mLayoutManager = new RecordingLayoutManager(context);
+        mRecyclerView = new TestRecyclerView(context);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(new FixedAdapter(ITEM_COUNT, 100));
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+        mRecyclerView.mHorizontalRange = RANGE;
+        mRecyclerView.mHorizontalExtent = WIDTH;
+    }
+
+    @Test
+    public void thumbStartsAtLeftInLtr() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+
+        mScroller.getHorizontalThumbBounds(mBounds);
+
+        assertEquals(new Rect(0, HEIGHT - THUMB_THICKNESS, THUMB_LENGTH, HEIGHT), mBounds);
+        assertTrue(mScroller.isPointInsideHorizontalThumb(START_ALONG, THUMB_Y));
+        assertFalse(mScroller.isPointInsideHorizontalThumb(WIDTH - START_ALONG, THUMB_Y));
+    }
+
+    @Test
+    public void thumbStartsAtRightInRtl() {
+        setRtlAtStart();
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+
+        mScroller.getHorizontalThumbBounds(mBounds);
+
+        assertEquals(new Rect(WIDTH - THUMB_LENGTH, HEIGHT - THUMB_THICKNESS, WIDTH, HEIGHT),
+                mBounds);
+        assertTrue(mScroller.isPointInsideHorizontalThumb(WIDTH - START_ALONG, THUMB_Y));
+        assertFalse(mScroller.isPointInsideHorizontalThumb(START_ALONG, THUMB_Y));
+    }
+
+    @Test
+    public void noThumbWhenContentFits() {
+        mRecyclerView.mHorizontalRange = WIDTH;
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+
+        assertFalse(mScroller.onInterceptTouchEvent(mRecyclerView, MotionEvent.obtain(0, 0,
+                MotionEvent.ACTION_DOWN, START_ALONG, THUMB_Y, 0)));
+        drag(START_ALONG, START_ALONG + WIDTH / 2f);
+
+        assertEquals(0, mRecyclerView.mScrolledX);
+    }
+
+    @Test
+    public void thumbFadesWithOverlay() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY, true);
+        // The fade in starts on the first frame.
+        assertEquals(0, mScroller.mHorizontalThumbDrawable.getAlpha());
+
+        runFrames(ConfigurableFastScroll.SHOW_DURATION_MS);
+        assertEquals(255, mScroller.mHorizontalThumbDrawable.getAlpha());
+
+        mScroller.hide(160);
+        runFrames(80);
+        int alpha = mScroller.mHorizontalThumbDrawable.getAlpha();
+        assertTrue(alpha > 0 && alpha < 255);
+        runFrames(160);
+        assertEquals(0, mScroller.mHorizontalThumbDrawable.getAlpha());
+    }
+
+    @Test
+    public void scrollByDragMovesRightInLtr() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+
+        // Half the track length scrolls half the scrollable distance.
+        drag(START_ALONG, START_ALONG + WIDTH / 2f);
+
+        assertEquals((RANGE - WIDTH) / 2, mRecyclerView.mScrolledX);
+    }
+
+    @Test
+    public void scrollByDragMovesLeftInRtl() {
+        setRtlAtStart();
+        createScroller(ConfigurableFastScroll.DRAG_MODE_SCROLL_BY);
+
+        drag(WIDTH - START_ALONG, WIDTH - START_ALONG - WIDTH / 2f);
+
+        assertEquals(-(RANGE - WIDTH) / 2, mRecyclerView.mScrolledX);
+    }
+
+    @Test
+    public void jumpDragLandsOnSamePositionInEitherDirection() {
+        createScroller(ConfigurableFastScroll.DRAG_MODE_JUMP);
+        drag(START_ALONG, MIDDLE_ALONG);
+        int ltrPosition = mLayoutManager.mJumpPosition;
+
+        setUp();
+        setRtlAtStart();
+        createScroller(ConfigurableFastScroll.DRAG_MODE_JUMP);
+        drag(WIDTH - START_ALONG, WIDTH - MIDDLE_ALONG);
+
+        // Half of the scrollable distance, counted from the start edge
+        assertEquals(ITEM_COUNT * ((RANGE - WIDTH) / 2) / RANGE, ltrPosition);
+        assertEquals(ltrPosition, mLayoutManager.mJumpPosition);
+        mScroller.getHorizontalThumbBounds(mBounds);
+        assertEquals((WIDTH - THUMB_LENGTH) / 2, mBounds.left);
+    }
+
+    private void setRtlAtStart() {
+        mRecyclerView.mRtl = true;
+        // RecyclerView measures from the left, where the end of the content is.
+        mRecyclerView.mHorizontalOffset = RANGE - WIDTH;
+    }
+
+    private void createScroller(@ConfigurableFastScroll.DragMode int dragMode) {
+        createScroller(dragMode, false);
+    }
+
+    private void createScroller(@ConfigurableFastScroll.DragMode int dragMode,
+                                boolean thumbOverlay) {
+        Context context = ApplicationProvider.getApplicationContext();
+        StateListDrawable thumb = new StateListDrawable();
+        thumb.addState(new int[]{}, new NoOpDrawable(20, 100));
+        StateListDrawable horizontalThumb = new StateListDrawable();
+        horizontalThumb.addState(new int[]{}, new NoOpDrawable(THUMB_LENGTH, THUMB_THICKNESS));
+        FastScrollStyle style = new FastScrollStyle.Builder(context)
+                .setThumbDrawable(thumb)
+                .setHorizontalThumbDrawable(horizontalThumb)
+                .build();
+        mScroller = new ConfigurableFastScroll(mRecyclerView, style,
+                new FixedExtentProvider(100), dragMode, null, 0, null, null, null, null, null,
+                thumbOverlay, new RecyclerViewExtentProvider(RecyclerView.HORIZONTAL), null);
+        mScroller.setFrameScheduler(mFrameScheduler);
+        mScroller.setEngine(new FastScrollEngine(mFrameScheduler, new VirtualTimer()));
+
+        // Picks up the view size, then shows the thumbs.
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        mScroller.updateScrollPosition(0);
+        runFrame();
+    }
+
+    /**
+     * Grabs the horizontal thumb at {@code fromX}, moves it to {@code toX} and lets go.
+     */
+    private void drag(float fromX, float toX) {
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 0,
+                MotionEvent.ACTION_DOWN, fromX, THUMB_Y, 0));
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 16,
+                MotionEvent.ACTION_MOVE, toX, THUMB_Y, 0));
+        runFrame();
+        mScroller.onTouchEvent(mRecyclerView, MotionEvent.obtain(0, 32,
+                MotionEvent.ACTION_UP, toX, THUMB_Y, 0));
+    }
+
+    private void runFrame() {
+        mFrameTimeNanos += FRAME_NANOS;
+        mFrameScheduler.runFrame(mFrameTimeNanos);
+    }
+
+    /**
+     * Runs a frame after each of the next {@code millis}, rounded up to whole frames.
+     */
+    private void runFrames(int millis) {
+        for (long elapsed = 0; elapsed < millis * 1_000_000L; elapsed += FRAME_NANOS) {
+            runFrame();
+        }
+    }
+
+    /**
+     * Horizontal layout manager that records the jumps it is asked to make.
+     */
+    private static final class RecordingLayoutManager extends LinearLayoutManager {
+
+        int mJumpPosition = RecyclerView.NO_POSITION;
+
+        RecordingLayoutManager(Context context) {
+            super(context, RecyclerView.HORIZONTAL, false);
+        }
+
+        @Override
+        public void scrollToPositionWithOffset(int position, int offset) {
+            mJumpPosition = position;
+            super.scrollToPositionWithOffset(position, offset);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.StateListDrawable;
+import android.view.View;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a scroller bound to a lifecycle leaves nothing posted on the main thread while it
+ * is stopped, and lets go of the RecyclerView once it is destroyed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfigurableFastScrollLifecycleTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEM_EXTENT = 100;
+    private static final long FRAME_NANOS = 16_000_000L;
+
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private final VirtualTimer mTimer = new VirtualTimer();
+    private final Canvas mCanvas = new Canvas();
+    private final TestLifecycleOwner mOwner = new TestLifecycleOwner();
+    private FastScrollEngine mEngine;
+    private RecyclerView mRecyclerView;
+    private ConfigurableFastScroll mScroller;
+    private long mFrameTimeNanos = 0;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+        mRecyclerView.setAdapter(new FixedAdapter(10000, ITEM_EXTENT));
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+
+        StateListDrawable thumb = new StateListDrawable();
+        thumb.addState(new int[]{}, new NoOpDrawable(20, 100));
+        FastScrollStyle style = new FastScrollStyle.Builder(context)
+                .setThumbDrawable(thumb)
+                .build();
+        mScroller = new ConfigurableFastScroll(mRecyclerView, style,
+                new FixedExtentProvider(ITEM_EXTENT), ConfigurableFastScroll.DRAG_MODE_JUMP,
+                null, 8, null, null, null, null, null, false, null, null);
+        mEngine = new FastScrollEngine(mFrameScheduler, mTimer);
+        mScroller.setFrameScheduler(mFrameScheduler);
+        mScroller.setEngine(mEngine);
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        mScroller.bindToLifecycle(mOwner);
+    }
+
+    @Test
+    public void stoppedScrollerLeavesNothingPosted() {
+        // Mid fade-in, with the hide deadline armed.
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        mScroller.updateScrollPosition(0);
+        runFrame();
+        assertFalse(mEngine.isDormant());
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+        assertIdle();
+
+        // Scrolls and draws while stopped must not wake anything up.
+        mRecyclerView.scrollBy(0, 5000);
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        runFrame();
+        assertIdle();
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+        mRecyclerView.scrollBy(0, 5000);
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        assertFalse(mEngine.isDormant());
+    }
+
+    @Test
+    public void destroyDetachesFromRecyclerView() {
+        mScroller.onDrawOver(mCanvas, mRecyclerView, null);
+        mScroller.updateScrollPosition(0);
+        runFrame();
+
+        mOwner.mRegistry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        assertIdle();
+        assertEquals(0, mRecyclerView.getItemDecorationCount());
+        assertEquals(0, mOwner.mRegistry.getObserverCount());
+    }
+
+    private void assertIdle() {
+        assertTrue(mEngine.isDormant());
+        assertFalse(mTimer.hasPending());
+        assertEquals(0, mFrameScheduler.getPendingCount());
+    }
+
+    private void runFrame() {
+        mFrameTimeNanos += FRAME_NANOS;
+        mFrameScheduler.runFrame(mFrameTimeNanos);
+    }
+}
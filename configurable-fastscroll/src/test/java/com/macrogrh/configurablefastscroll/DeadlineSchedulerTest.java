@@ -0,0 +1,91 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.macrogrh.configurablefastscroll.ConfigurableFastScroll.HIDE_DELAY_AFTER_DRAGGING_MS;
+import static com.macrogrh.configurablefastscroll.ConfigurableFastScroll.HIDE_DELAY_AFTER_VISIBLE_MS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeadlineSchedulerTest {
+
+    private static final long NEVER = -1;
+
+    private final VirtualTimer mTimer = new VirtualTimer();
+    private long mHiddenAt = NEVER;
+    private DeadlineScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mScheduler = new DeadlineScheduler(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals("hidden twice", NEVER, mHiddenAt);
+                mHiddenAt = mTimer.uptimeMillis();
+            }
+        }, mTimer);
+    }
+
+    @Test
+    public void hidesAfterVisibleDelay() {
+        mTimer.advanceTo(1000);
+        mScheduler.schedule(HIDE_DELAY_AFTER_VISIBLE_MS);
+
+        mTimer.advanceTo(1000 + HIDE_DELAY_AFTER_VISIBLE_MS - 1);
+        assertEquals(NEVER, mHiddenAt);
+        mTimer.advanceTo(10000);
+        assertEquals(1000 + HIDE_DELAY_AFTER_VISIBLE_MS, mHiddenAt);
+    }
+
+    @Test
+    public void flingDefersHideWithoutReposting() {
+        // One scroll event per 16 ms frame for two seconds.
+        long lastEvent = 0;
+        for (long time = 0; time <= 2000; time += 16) {
+            mTimer.advanceTo(time);
+            mScheduler.schedule(HIDE_DELAY_AFTER_VISIBLE_MS);
+            lastEvent = time;
+        }
+        mTimer.advanceTo(10000);
+
+        assertEquals(lastEvent + HIDE_DELAY_AFTER_VISIBLE_MS, mHiddenAt);
+        assertTrue("posted " + mTimer.mPostCount + " callbacks", mTimer.mPostCount <= 3);
+        assertEquals(0, mTimer.mRemoveCount);
+    }
+
+    @Test
+    public void hidesAfterDraggingDelay() {
+        mScheduler.schedule(HIDE_DELAY_AFTER_VISIBLE_MS);
+        mTimer.advanceTo(100);
+        // Drag starts.
+        mScheduler.cancel();
+        mTimer.advanceTo(5000);
+        assertEquals(NEVER, mHiddenAt);
+
+        // Drag ends.
+        mScheduler.schedule(HIDE_DELAY_AFTER_DRAGGING_MS);
+        mTimer.advanceTo(10000);
+        assertEquals(5000 + HIDE_DELAY_AFTER_DRAGGING_MS, mHiddenAt);
+    }
+
+    @Test
+    public void shorterDelayMovesCallbackEarlier() {
+        mScheduler.schedule(HIDE_DELAY_AFTER_VISIBLE_MS);
+        mTimer.advanceTo(100);
+        mScheduler.schedule(HIDE_DELAY_AFTER_DRAGGING_MS);
+        mTimer.advanceTo(10000);
+
+        assertEquals(100 + HIDE_DELAY_AFTER_DRAGGING_MS, mHiddenAt);
+    }
+
+    @Test
+    public void cancelPreventsHide() {
+        mScheduler.schedule(HIDE_DELAY_AFTER_VISIBLE_MS);
+        mTimer.advanceTo(1000);
+        mScheduler.cancel();
+        mTimer.advanceTo(10000);
+
+        assertEquals(NEVER, mHiddenAt);
+    }
+}
@@ -0,0 +1,90 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DragAnchorTest {
+
+    private int mCallbacks = 0;
+    private DragAnchor mAnchor;
+
+    @Before
+    public void setUp() {
+        mAnchor = new DragAnchor(new Runnable() {
+            @Override
+            public void run() {
+                mCallbacks++;
+            }
+        });
+        mAnchor.set(100, 7);
+    }
+
+    @Test
+    public void burstOfChangesCallsBackOnce() {
+        for (int i = 0; i < 10; i++) {
+            mAnchor.onItemRangeInserted(0, 5);
+        }
+
+        assertEquals(1, mCallbacks);
+        assertEquals(150, mAnchor.getPosition());
+        assertEquals(7, mAnchor.getOffset());
+        assertTrue(mAnchor.consumeMoved());
+        assertFalse(mAnchor.consumeMoved());
+
+        mAnchor.onItemRangeInserted(0, 1);
+        assertEquals(2, mCallbacks);
+    }
+
+    @Test
+    public void changesAfterAnchorKeepPosition() {
+        mAnchor.onItemRangeInserted(101, 5);
+        mAnchor.onItemRangeRemoved(101, 5);
+        mAnchor.onItemRangeMoved(200, 101, 1);
+
+        assertEquals(100, mAnchor.getPosition());
+        assertEquals(7, mAnchor.getOffset());
+    }
+
+    @Test
+    public void removalBeforeAnchorShiftsIt() {
+        mAnchor.onItemRangeRemoved(10, 20);
+
+        assertEquals(80, mAnchor.getPosition());
+        assertEquals(7, mAnchor.getOffset());
+    }
+
+    @Test
+    public void removingAnchoredItemRestsOnNextItem() {
+        mAnchor.onItemRangeRemoved(95, 10);
+
+        assertEquals(95, mAnchor.getPosition());
+        assertEquals(0, mAnchor.getOffset());
+    }
+
+    @Test
+    public void movesFollowAnchoredItem() {
+        mAnchor.onItemRangeMoved(100, 3, 1);
+        assertEquals(3, mAnchor.getPosition());
+
+        mAnchor.onItemRangeMoved(0, 50, 1);
+        assertEquals(2, mAnchor.getPosition());
+
+        mAnchor.onItemRangeMoved(50, 0, 1);
+        assertEquals(3, mAnchor.getPosition());
+    }
+
+    @Test
+    public void unanchoredChangesOnlyFlag() {
+        mAnchor.observe(null);
+        mAnchor.onItemRangeInserted(0, 5);
+
+        assertEquals(RecyclerView.NO_POSITION, mAnchor.getPosition());
+        assertTrue(mAnchor.consumeMoved());
+    }
+}
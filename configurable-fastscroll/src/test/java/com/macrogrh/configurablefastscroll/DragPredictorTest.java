@@ -0,0 +1,52 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DragPredictorTest {
+
+    @Test
+    public void constantVelocityIsExtrapolated() {
+        DragPredictor predictor = new DragPredictor();
+        for (int i = 0; i <= 10; i++) {
+            predictor.addSample(100 + i * 4, 200 + i * 8);
+        }
+
+        assertEquals(2f, predictor.getVelocity(), 0.001f);
+        assertEquals(280f, predictor.getLatest(), 0.001f);
+        assertEquals(296f, predictor.predict(8), 0.001f);
+    }
+
+    @Test
+    public void oldSamplesAreIgnored() {
+        DragPredictor predictor = new DragPredictor();
+        predictor.addSample(0, 0);
+        predictor.addSample(100, 500);
+        predictor.addSample(110, 510);
+        predictor.addSample(120, 520);
+
+        assertEquals(1f, predictor.getVelocity(), 0.001f);
+    }
+
+    @Test
+    public void singleSampleHasNoVelocity() {
+        DragPredictor predictor = new DragPredictor();
+        predictor.addSample(10, 50);
+
+        assertEquals(0f, predictor.getVelocity(), 0.001f);
+        assertEquals(50f, predictor.predict(16), 0.001f);
+    }
+
+    @Test
+    public void resetForgetsSamples() {
+        DragPredictor predictor = new DragPredictor();
+        predictor.addSample(0, 0);
+        predictor.addSample(10, 100);
+        predictor.reset();
+        predictor.addSample(20, 40);
+
+        assertEquals(0f, predictor.getVelocity(), 0.001f);
+        assertEquals(40f, predictor.getLatest(), 0.001f);
+    }
+}
@@ -0,0 +1,87 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExtentStoreTest {
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("extents", null);
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void extentsSurviveReopening() {
+        ExtentStore store = new ExtentStore(mFile, 1024);
+        store.putAll(new long[]{1, 2, 1L << 40}, new int[]{10, 20, 30}, 3);
+        store.putAll(new long[]{2}, new int[]{25}, 1);
+        store.flush();
+
+        ExtentStore reopened = new ExtentStore(mFile, 1024);
+        assertEquals(10, reopened.get(1));
+        assertEquals(25, reopened.get(2));
+        assertEquals(30, reopened.get(1L << 40));
+        assertEquals(0, reopened.get(3));
+    }
+
+    @Test
+    public void getAllReadsEveryId() {
+        ExtentStore store = new ExtentStore(mFile, 1024);
+        store.putAll(new long[]{1, 3}, new int[]{10, 30}, 2);
+
+        int[] extents = new int[]{-1, -1, -1, -1};
+        store.getAll(new long[]{1, 2, 3, 4}, extents, 3);
+
+        assertArrayEquals(new int[]{10, 0, 30, -1}, extents);
+    }
+
+    @Test
+    public void differentSizeStartsEmpty() {
+        new ExtentStore(mFile, 1024).putAll(new long[]{1}, new int[]{10}, 1);
+
+        assertEquals(0, new ExtentStore(mFile, 4096).get(1));
+    }
+
+    @Test
+    public void fileSizeIsBounded() {
+        ExtentStore store = new ExtentStore(mFile, 1000);
+        int maxEntries = store.getMaxEntries();
+        int count = maxEntries * 4;
+        long[] ids = new long[count];
+        int[] extents = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            extents[i] = i + 1;
+        }
+        store.putAll(ids, extents, count);
+
+        assertEquals(1024, maxEntries);
+        assertEquals(ExtentStore.fileSize(maxEntries / 4), mFile.length());
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int extent = store.get(i);
+            if (extent != 0) {
+                assertEquals(i + 1, extent);
+                kept++;
+            }
+        }
+        assertTrue(kept <= maxEntries);
+        // The last write always wins its set.
+        assertEquals(count, store.get(count - 1));
+    }
+}
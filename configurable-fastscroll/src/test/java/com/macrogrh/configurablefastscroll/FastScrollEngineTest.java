@@ -0,0 +1,88 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FastScrollEngineTest {
+
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private final VirtualTimer mTimer = new VirtualTimer();
+    private final FastScrollEngine mEngine = new FastScrollEngine(mFrameScheduler, mTimer);
+
+    @Test
+    public void animatingClientsShareOneFrameCallback() {
+        RecordingClient first = new RecordingClient(2);
+        RecordingClient second = new RecordingClient(3);
+        mEngine.startAnimating(first);
+        mEngine.startAnimating(second);
+        assertEquals(1, mFrameScheduler.mPostCount);
+
+        for (int frame = 1; frame <= 5; frame++) {
+            mFrameScheduler.runFrame(frame * 16_000_000L);
+        }
+
+        assertEquals(2, first.mFrames);
+        assertEquals(3, second.mFrames);
+        assertEquals(3, mFrameScheduler.mPostCount);
+        assertEquals(0, mFrameScheduler.getPendingCount());
+        assertTrue(mEngine.isDormant());
+    }
+
+    @Test
+    public void deadlinesShareOneTimer() {
+        RecordingClient first = new RecordingClient(0);
+        RecordingClient second = new RecordingClient(0);
+        mEngine.scheduleHide(first, 1500);
+        mTimer.advanceTo(100);
+        mEngine.scheduleHide(second, 1200);
+        for (long time = 200; time <= 1000; time += 16) {
+            mTimer.advanceTo(time);
+            mEngine.scheduleHide(first, 1500);
+        }
+
+        mTimer.advanceTo(10000);
+
+        assertEquals(1300, second.mHiddenAt);
+        assertEquals(1000 + 1500, first.mHiddenAt);
+        assertTrue("posted " + mTimer.mPostCount + " callbacks", mTimer.mPostCount <= 4);
+        assertTrue(mEngine.isDormant());
+    }
+
+    @Test
+    public void cancellingLastDeadlineGoesDormant() {
+        RecordingClient client = new RecordingClient(0);
+        mEngine.scheduleHide(client, 1500);
+        assertFalse(mEngine.isDormant());
+
+        mEngine.cancelHide(client);
+
+        assertTrue(mEngine.isDormant());
+        assertFalse(mTimer.hasPending());
+    }
+
+    private final class RecordingClient implements FastScrollEngine.Client {
+
+        private final int mFrameCount;
+        int mFrames = 0;
+        long mHiddenAt = -1;
+
+        RecordingClient(int frameCount) {
+            mFrameCount = frameCount;
+        }
+
+        @Override
+        public boolean doAnimationFrame(long frameTimeMillis) {
+            mFrames++;
+            return mFrames < mFrameCount;
+        }
+
+        @Override
+        public void onHideDeadline() {
+            assertEquals("hidden twice", -1, mHiddenAt);
+            mHiddenAt = mTimer.uptimeMillis();
+        }
+    }
+}
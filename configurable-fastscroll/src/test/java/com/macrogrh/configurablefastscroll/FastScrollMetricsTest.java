@@ -0,0 +1,63 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FastScrollMetricsTest {
+
+    @Test
+    public void sessionCountersAreCollected() {
+        FastScrollMetrics metrics = new FastScrollMetrics();
+        metrics.begin(1000, 50);
+        metrics.onFrame(1030, 0);
+        metrics.onScrollBy(-40);
+        metrics.onJump(500);
+        metrics.onFrame(1050, 7);
+        metrics.onFrame(1070, 3);
+        metrics.end(1200);
+
+        assertEquals(200, metrics.getDurationMillis());
+        assertEquals(30, metrics.getTimeToFirstFrameMillis());
+        assertEquals(3, metrics.getFrameCount());
+        assertEquals(1, metrics.getScrollByCount());
+        assertEquals(1, metrics.getJumpCount());
+        assertEquals(540, metrics.getPixelsTravelled());
+        assertEquals(11, metrics.getPositionsTravelled());
+    }
+
+    @Test
+    public void movesWaitingWholeFramesAreDropped() {
+        FastScrollMetrics metrics = new FastScrollMetrics();
+        metrics.begin(0, 50);
+
+        metrics.onMove(100);
+        metrics.onMove(105);
+        metrics.onMovesApplied(110);
+        assertEquals(0, metrics.getDroppedFrameCount());
+
+        metrics.onMove(200);
+        metrics.onMovesApplied(265);
+        assertEquals(3, metrics.getDroppedFrameCount());
+
+        // Without a move pending, an idle gap is not a drop.
+        metrics.onMovesApplied(1000);
+        assertEquals(3, metrics.getDroppedFrameCount());
+    }
+
+    @Test
+    public void beginResetsCounters() {
+        FastScrollMetrics metrics = new FastScrollMetrics();
+        metrics.begin(0, 60);
+        metrics.onFrame(10, 4);
+        metrics.onScrollBy(10);
+        metrics.end(100);
+
+        metrics.begin(500, 60);
+
+        assertEquals(0, metrics.getFrameCount());
+        assertEquals(0, metrics.getScrollByCount());
+        assertEquals(0, metrics.getPixelsTravelled());
+        assertEquals(-1, metrics.getTimeToFirstFrameMillis());
+    }
+}
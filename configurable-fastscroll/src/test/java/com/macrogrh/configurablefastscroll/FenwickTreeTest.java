@@ -0,0 +1,106 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class FenwickTreeTest {
+
+    @Test
+    public void prefixSumMatchesLinearSum() {
+        int[] values = randomValues(1000, 1);
+        FenwickTree tree = new FenwickTree();
+        tree.reset(values, values.length);
+
+        long sum = 0;
+        for (int i = 0; i <= values.length; i++) {
+            assertEquals(sum, tree.prefixSum(i));
+            if (i < values.length) {
+                sum += values[i];
+            }
+        }
+        assertEquals(sum, tree.total());
+    }
+
+    @Test
+    public void indexOfFindsCoveringItem() {
+        int[] values = randomValues(777, 2);
+        FenwickTree tree = new FenwickTree();
+        tree.reset(values, values.length);
+
+        long start = 0;
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, tree.indexOf(start));
+            assertEquals(i, tree.indexOf(start + values[i] - 1));
+            start += values[i];
+        }
+        assertEquals(values.length - 1, tree.indexOf(start + 100));
+    }
+
+    @Test
+    public void addUpdatesSumsAndLookups() {
+        int[] values = new int[]{10, 10, 10, 10};
+        FenwickTree tree = new FenwickTree();
+        tree.reset(values, values.length);
+
+        tree.add(1, 30);
+
+        assertEquals(10, tree.prefixSum(1));
+        assertEquals(50, tree.prefixSum(2));
+        assertEquals(70, tree.total());
+        assertEquals(1, tree.indexOf(49));
+        assertEquals(2, tree.indexOf(50));
+    }
+
+    @Test
+    public void resetFromMatchesFullReset() {
+        Random random = new Random(3);
+        int[] values = randomValues(1, 4);
+        int size = values.length;
+        FenwickTree tree = new FenwickTree();
+        tree.reset(values, size);
+
+        for (int step = 0; step < 500; step++) {
+            // Grow, shrink or rewrite the tail from a random index, like adapter changes do.
+            int from = random.nextInt(size + 1);
+            int newSize = Math.max(0, from + random.nextInt(2 * (size - from) + 20) - 10);
+            if (values.length < newSize) {
+                values = Arrays.copyOf(values, newSize);
+            }
+            for (int i = from; i < newSize; i++) {
+                values[i] = 1 + random.nextInt(300);
+            }
+            size = newSize;
+            tree.resetFrom(values, size, from);
+
+            FenwickTree expected = new FenwickTree();
+            expected.reset(values, size);
+            assertEquals(size, tree.size());
+            for (int i = 0; i <= size; i++) {
+                assertEquals(expected.prefixSum(i), tree.prefixSum(i));
+            }
+            assertEquals(expected.indexOf(expected.total() / 2), tree.indexOf(tree.total() / 2));
+        }
+    }
+
+    @Test
+    public void emptyTree() {
+        FenwickTree tree = new FenwickTree();
+        tree.reset(new int[0], 0);
+
+        assertEquals(0, tree.total());
+        assertEquals(0, tree.indexOf(100));
+    }
+
+    private static int[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 1 + random.nextInt(300);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Adapter of empty views that all have the same height. Its size can be changed with the usual
+ * notifications.
+ */
+final class FixedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private int mItemCount;
+    private final int mItemExtent;
+
+    FixedAdapter(int itemCount, int itemExtent) {
+        mItemCount = itemCount;
+        mItemExtent = itemExtent;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = new View(parent.getContext());
+        view.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, mItemExtent));
+        return new RecyclerView.ViewHolder(view) {
+        };
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    void setItemCount(int itemCount) {
+        mItemCount = itemCount;
+        notifyDataSetChanged();
+    }
+
+    void insert(int positionStart, int itemCount) {
+        mItemCount += itemCount;
+        notifyItemRangeInserted(positionStart, itemCount);
+    }
+
+    void remove(int positionStart, int itemCount) {
+        mItemCount -= itemCount;
+        notifyItemRangeRemoved(positionStart, itemCount);
+    }
+}
@@ -0,0 +1,57 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FixedExtentProviderTest {
+
+    private static final int ITEM_EXTENT = 50;
+
+    private final FixedExtentProvider mProvider = new FixedExtentProvider(ITEM_EXTENT);
+    private FixedAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        RecyclerView recyclerView = new RecyclerView(ApplicationProvider.getApplicationContext());
+        recyclerView.setLayoutManager(new LinearLayoutManager(recyclerView.getContext()));
+        mAdapter = new FixedAdapter(100, ITEM_EXTENT);
+        recyclerView.setAdapter(mAdapter);
+        mProvider.onAttachedToRecyclerView(recyclerView);
+    }
+
+    @Test
+    public void followsInsertions() {
+        mAdapter.insert(40, 20);
+
+        assertEquals(120L * ITEM_EXTENT, mProvider.getTotalExtent());
+        assertEquals(119, mProvider.getPositionForOffset(1000L * ITEM_EXTENT));
+    }
+
+    @Test
+    public void followsRemovals() {
+        mAdapter.remove(10, 30);
+
+        assertEquals(70L * ITEM_EXTENT, mProvider.getTotalExtent());
+        assertEquals(69, mProvider.getPositionForOffset(1000L * ITEM_EXTENT));
+        assertEquals(0, mProvider.getPositionForOffset(-1));
+    }
+
+    @Test
+    public void emptyAdapter() {
+        mAdapter.setItemCount(0);
+
+        assertEquals(0, mProvider.getTotalExtent());
+        assertEquals(0, mProvider.getPositionForOffset(ITEM_EXTENT));
+    }
+}
@@ -0,0 +1,174 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class GridExtentProviderTest {
+
+    private static final int SPAN_COUNT = 3;
+    private static final int ROW_EXTENT = 100;
+
+    private final HeaderSpanSizeLookup mLookup = new HeaderSpanSizeLookup();
+    private final GridExtentProvider mProvider = new GridExtentProvider(ROW_EXTENT);
+    private RecyclerView mRecyclerView;
+    private FixedAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        GridLayoutManager layoutManager = new GridLayoutManager(context, SPAN_COUNT);
+        layoutManager.setSpanSizeLookup(mLookup);
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutManager(layoutManager);
+        mAdapter = new FixedAdapter(15, ROW_EXTENT);
+        mRecyclerView.setAdapter(mAdapter);
+        mProvider.onAttachedToRecyclerView(mRecyclerView);
+    }
+
+    @Test
+    public void rowsFollowSpanSizes() {
+        // Every 7th item is a full-width header.
+        assertRowStarts(0, 1, 4, 7, 8, 11, 14);
+    }
+
+    @Test
+    public void offsetsMapToRowStarts() {
+        assertEquals(4, mProvider.getPositionForOffset(2 * ROW_EXTENT + 5));
+        assertEquals(7, mProvider.getPositionForOffset(3 * ROW_EXTENT));
+        assertEquals(14, mProvider.getPositionForOffset(100 * ROW_EXTENT));
+        assertEquals(2 * ROW_EXTENT, mProvider.getOffsetForPosition(6));
+        assertEquals(3 * ROW_EXTENT, mProvider.getOffsetForPosition(7));
+        assertEquals(7L * ROW_EXTENT, mProvider.getTotalExtent());
+    }
+
+    @Test
+    public void scanVisitsEveryItemOnce() {
+        mAdapter.setItemCount(100000);
+
+        assertEquals(mLookup.expectedRowStarts(100000).size(), mProvider.getRowCount());
+        assertEquals(100000, mLookup.mSpanSizeCalls);
+
+        mProvider.getRowCount();
+        assertEquals(100000, mLookup.mSpanSizeCalls);
+    }
+
+    @Test
+    public void insertRescansFromChangedRow() {
+        mProvider.getRowCount();
+        mLookup.mSpanSizeCalls = 0;
+
+        mAdapter.insert(5, 3);
+
+        assertRowStarts(mLookup.expectedRowStarts(18));
+        // From the row starting at 4 to the end
+        assertEquals(18 - 4, mLookup.mSpanSizeCalls);
+    }
+
+    @Test
+    public void removeRescansFromChangedRow() {
+        mAdapter.setItemCount(30);
+        mProvider.getRowCount();
+        mLookup.mSpanSizeCalls = 0;
+
+        mAdapter.remove(12, 4);
+
+        assertRowStarts(mLookup.expectedRowStarts(26));
+        assertEquals(26 - 11, mLookup.mSpanSizeCalls);
+    }
+
+    @Test
+    public void appendContinuesPartialRow() {
+        mAdapter.setItemCount(13);
+        mProvider.getRowCount();
+        mLookup.mSpanSizeCalls = 0;
+
+        mAdapter.insert(13, 5);
+
+        assertRowStarts(mLookup.expectedRowStarts(18));
+        assertEquals(5, mLookup.mSpanSizeCalls);
+    }
+
+    @Test
+    public void fullBindKeepsRows() {
+        mProvider.getRowCount();
+        mLookup.mSpanSizeCalls = 0;
+
+        mAdapter.notifyItemRangeChanged(4, 6, ConfigurableFastScroll.PAYLOAD_FULL_BIND);
+        assertRowStarts(0, 1, 4, 7, 8, 11, 14);
+        assertEquals(0, mLookup.mSpanSizeCalls);
+
+        mAdapter.notifyItemRangeChanged(4, 6);
+        assertRowStarts(0, 1, 4, 7, 8, 11, 14);
+        assertEquals(15 - 4, mLookup.mSpanSizeCalls);
+    }
+
+    private void assertRowStarts(int... expected) {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int start : expected) {
+            list.add(start);
+        }
+        assertRowStarts(list);
+    }
+
+    private void assertRowStarts(ArrayList<Integer> expected) {
+        assertEquals(expected.size(), mProvider.getRowCount());
+        for (int row = 0; row < expected.size(); row++) {
+            int start = expected.get(row);
+            assertEquals(start, mProvider.getRowStart(row));
+            assertEquals(row, mProvider.getRowForPosition(start));
+        }
+    }
+
+    /**
+     * Makes every 7th item span the whole row and counts the lookups. Row starts are only ever
+     * computed by summing span sizes.
+     */
+    private static final class HeaderSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+        int mSpanSizeCalls = 0;
+
+        @Override
+        public int getSpanSize(int position) {
+            mSpanSizeCalls++;
+            return spanSizeOf(position);
+        }
+
+        @Override
+        public int getSpanIndex(int position, int spanCount) {
+            throw new AssertionError("quadratic without the package-private span cache");
+        }
+
+        private static int spanSizeOf(int position) {
+            return position % 7 == 0 ? SPAN_COUNT : 1;
+        }
+
+        ArrayList<Integer> expectedRowStarts(int itemCount) {
+            ArrayList<Integer> starts = new ArrayList<>();
+            int span = SPAN_COUNT;
+            for (int position = 0; position < itemCount; position++) {
+                int size = spanSizeOf(position);
+                if (span + size > SPAN_COUNT) {
+                    starts.add(position);
+                    span = 0;
+                }
+                span += size;
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Runs posted frame callbacks when told to. Two lists are swapped rather than copied, so running
+ * a frame does not allocate either.
+ */
+final class ManualFrameScheduler implements FrameScheduler {
+
+    private ArrayList<Choreographer.FrameCallback> mPending = new ArrayList<>();
+    private ArrayList<Choreographer.FrameCallback> mRunning = new ArrayList<>();
+    int mPostCount = 0;
+
+    @Override
+    public void postFrameCallback(Choreographer.FrameCallback callback) {
+        assertFalse("frame callback posted twice", mPending.contains(callback));
+        mPending.add(callback);
+        mPostCount++;
+    }
+
+    @Override
+    public void removeFrameCallback(Choreographer.FrameCallback callback) {
+        mPending.remove(callback);
+    }
+
+    int getPendingCount() {
+        return mPending.size();
+    }
+
+    void runFrame(long frameTimeNanos) {
+        ArrayList<Choreographer.FrameCallback> running = mPending;
+        mPending = mRunning;
+        mRunning = running;
+        for (int i = 0; i < running.size(); i++) {
+            running.get(i).doFrame(frameTimeNanos);
+        }
+        running.clear();
+    }
+}
@@ -0,0 +1,186 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Opens a list whose first 20 items have stored extents, and checks that they are read back onto
+ * the right items even when the list changes while the read is in flight.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class MeasuredExtentProviderStoreTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int STORED_COUNT = 20;
+    private static final int STORED = 100;
+    private static final int ESTIMATE = 50;
+
+    private File mFile;
+    private StableAdapter mAdapter;
+    private MeasuredExtentProvider mProvider;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("extents", null);
+        ExtentStore store = new ExtentStore(mFile, ExtentStore.DEFAULT_MAX_ENTRIES);
+        long[] ids = new long[STORED_COUNT];
+        int[] extents = new int[STORED_COUNT];
+        for (int i = 0; i < STORED_COUNT; i++) {
+            ids[i] = i;
+            extents[i] = STORED;
+        }
+        store.putAll(ids, extents, STORED_COUNT);
+        store.flush();
+
+        Context context = ApplicationProvider.getApplicationContext();
+        // Never laid out, so only the store changes extents.
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        mAdapter = new StableAdapter(ITEM_COUNT);
+        recyclerView.setAdapter(mAdapter);
+        mProvider = new MeasuredExtentProvider(ESTIMATE, mFile);
+        mProvider.onAttachedToRecyclerView(recyclerView);
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void storedExtentsAreReadBack() throws InterruptedException {
+        assertEquals(ITEM_COUNT * ESTIMATE, mProvider.getTotalExtent());
+
+        awaitRead();
+
+        assertEquals(STORED_COUNT * STORED, mProvider.getOffsetForPosition(STORED_COUNT));
+        assertEquals(STORED_COUNT * STORED + (ITEM_COUNT - STORED_COUNT) * ESTIMATE,
+                mProvider.getTotalExtent());
+    }
+
+    @Test
+    public void readFollowsInsertInFlight() throws InterruptedException {
+        awaitBackground();
+        mAdapter.insert(0, 5);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(5 * ESTIMATE, mProvider.getOffsetForPosition(5));
+        assertEquals(5 * ESTIMATE + STORED_COUNT * STORED,
+                mProvider.getOffsetForPosition(5 + STORED_COUNT));
+    }
+
+    @Test
+    public void readFollowsRemoveAndMoveInFlight() throws InterruptedException {
+        awaitBackground();
+        mAdapter.remove(0, 2);
+        mAdapter.move(0, 50);
+        ShadowLooper.idleMainLooper();
+
+        // Items 3 to 19 first, then estimates, then item 2 at position 50
+        assertEquals((STORED_COUNT - 3) * STORED,
+                mProvider.getOffsetForPosition(STORED_COUNT - 3));
+        assertEquals((STORED_COUNT - 3) * STORED + (50 - STORED_COUNT + 3) * ESTIMATE,
+                mProvider.getOffsetForPosition(50));
+        assertEquals((STORED_COUNT - 3) * STORED + (50 - STORED_COUNT + 3) * ESTIMATE + STORED,
+                mProvider.getOffsetForPosition(51));
+    }
+
+    private void awaitRead() throws InterruptedException {
+        awaitBackground();
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * Waits for the reads queued so far; their results are then posted but not yet applied.
+     */
+    private static void awaitBackground() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        FastScrollExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Adapter of empty views whose IDs stay with them as they are inserted, removed and moved.
+     */
+    private static final class StableAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final ArrayList<Long> mIds = new ArrayList<>();
+        // Inserted items get IDs that were never stored.
+        private long mNextId = 1000;
+
+        StableAdapter(int itemCount) {
+            setHasStableIds(true);
+            for (long id = 0; id < itemCount; id++) {
+                mIds.add(id);
+            }
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent,
+                                                          int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return mIds.size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mIds.get(position);
+        }
+
+        void insert(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mIds.add(positionStart + i, mNextId++);
+            }
+            notifyItemRangeInserted(positionStart, itemCount);
+        }
+
+        void remove(int positionStart, int itemCount) {
+            mIds.subList(positionStart, positionStart + itemCount).clear();
+            notifyItemRangeRemoved(positionStart, itemCount);
+        }
+
+        void move(int fromPosition, int toPosition) {
+            mIds.add(toPosition, mIds.remove(fromPosition));
+            notifyItemMoved(fromPosition, toPosition);
+        }
+    }
+}
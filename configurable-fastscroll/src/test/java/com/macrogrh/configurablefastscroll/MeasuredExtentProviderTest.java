@@ -0,0 +1,97 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Lays out the first 20 items at twice the estimate, then checks that adapter changes keep every
+ * measured extent with its item.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class MeasuredExtentProviderTest {
+
+    private static final int ITEM_EXTENT = 100;
+    private static final int ESTIMATE = 50;
+    private static final int MEASURED = 20;
+
+    private final MeasuredExtentProvider mProvider = new MeasuredExtentProvider(ESTIMATE);
+    private FixedAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        mAdapter = new FixedAdapter(100, ITEM_EXTENT);
+        recyclerView.setAdapter(mAdapter);
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(MEASURED * ITEM_EXTENT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1080, MEASURED * ITEM_EXTENT);
+        mProvider.onAttachedToRecyclerView(recyclerView);
+        mProvider.measureAttachedChildren();
+    }
+
+    @Test
+    public void measuredExtentsReplaceEstimate() {
+        assertEquals(MEASURED * ITEM_EXTENT + 80 * ESTIMATE, mProvider.getTotalExtent());
+        assertEquals(MEASURED * ITEM_EXTENT, mProvider.getOffsetForPosition(MEASURED));
+        assertEquals(MEASURED + 1, mProvider.getPositionForOffset(
+                MEASURED * ITEM_EXTENT + ESTIMATE));
+    }
+
+    @Test
+    public void insertedItemsUseEstimate() {
+        mAdapter.insert(5, 3);
+
+        assertEquals(5 * ITEM_EXTENT, mProvider.getOffsetForPosition(5));
+        assertEquals(5 * ITEM_EXTENT + 3 * ESTIMATE, mProvider.getOffsetForPosition(8));
+        assertEquals(6 * ITEM_EXTENT + 3 * ESTIMATE, mProvider.getOffsetForPosition(9));
+        assertEquals(MEASURED * ITEM_EXTENT + 83 * ESTIMATE, mProvider.getTotalExtent());
+        assertEquals(7, mProvider.getPositionForOffset(5 * ITEM_EXTENT + 2 * ESTIMATE));
+    }
+
+    @Test
+    public void appendedItemsUseEstimate() {
+        mAdapter.insert(100, 50);
+
+        assertEquals(MEASURED * ITEM_EXTENT + 130 * ESTIMATE, mProvider.getTotalExtent());
+        assertEquals(149, mProvider.getPositionForOffset(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void removalKeepsLaterExtents() {
+        mAdapter.remove(2, 4);
+
+        assertEquals(2 * ITEM_EXTENT, mProvider.getOffsetForPosition(2));
+        assertEquals((MEASURED - 4) * ITEM_EXTENT, mProvider.getOffsetForPosition(MEASURED - 4));
+        assertEquals((MEASURED - 4) * ITEM_EXTENT + ESTIMATE,
+                mProvider.getOffsetForPosition(MEASURED - 3));
+        assertEquals((MEASURED - 4) * ITEM_EXTENT + 80 * ESTIMATE, mProvider.getTotalExtent());
+    }
+
+    @Test
+    public void moveCarriesExtent() {
+        mAdapter.notifyItemMoved(0, 30);
+
+        assertEquals((MEASURED - 1) * ITEM_EXTENT, mProvider.getOffsetForPosition(MEASURED - 1));
+        assertEquals((MEASURED - 1) * ITEM_EXTENT + 11 * ESTIMATE,
+                mProvider.getOffsetForPosition(30));
+        assertEquals((MEASURED - 1) * ITEM_EXTENT + 11 * ESTIMATE + ITEM_EXTENT,
+                mProvider.getOffsetForPosition(31));
+        assertEquals(MEASURED * ITEM_EXTENT + 80 * ESTIMATE, mProvider.getTotalExtent());
+    }
+}
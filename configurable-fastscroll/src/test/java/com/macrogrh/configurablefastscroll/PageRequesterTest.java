@@ -0,0 +1,116 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PageRequesterTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int WINDOW = 20;
+
+    private final VirtualTimer mTimer = new VirtualTimer();
+    private final RecordingDataSource mDataSource = new RecordingDataSource();
+    private final PageRequester mRequester = new PageRequester(mDataSource, mTimer);
+
+    @Test
+    public void longScrubLoadsOnlyWhereItRests() {
+        mRequester.onScrubStarted();
+        // 0 to 2M in 2 s, one target per 16 ms frame.
+        long time = 0;
+        for (int frame = 0; frame <= 125; frame++) {
+            time = frame * 16L;
+            mTimer.advanceTo(time);
+            int position = frame * 16_000;
+            mRequester.onTarget(position, position + WINDOW - 1);
+        }
+        assertTrue(mDataSource.mLoaded.isEmpty());
+
+        // Rest on the target, then release.
+        mTimer.advanceTo(time + PageRequester.LOAD_DEBOUNCE_MS);
+        mRequester.onScrubEnded();
+
+        assertEquals(list(2_000_000 / PAGE_SIZE), mDataSource.mLoaded);
+        assertTrue(mDataSource.mCancelled.isEmpty());
+        assertFalse(mDataSource.mScrubbing);
+    }
+
+    @Test
+    public void pagesScrubbedPastAreCancelled() {
+        mRequester.onScrubStarted();
+        mRequester.onTarget(1000, 1000 + WINDOW - 1);
+        mTimer.advanceTo(PageRequester.LOAD_DEBOUNCE_MS);
+        assertEquals(list(20), mDataSource.mLoaded);
+
+        mRequester.onTarget(5000, 5000 + WINDOW - 1);
+        assertEquals(list(20), mDataSource.mCancelled);
+
+        mRequester.onScrubEnded();
+        assertEquals(list(20, 100), mDataSource.mLoaded);
+    }
+
+    @Test
+    public void windowAcrossPagesLoadsBoth() {
+        mRequester.onScrubStarted();
+        mRequester.onTarget(40, 40 + WINDOW - 1);
+        mRequester.onScrubEnded();
+
+        assertEquals(list(0, 1), mDataSource.mLoaded);
+    }
+
+    @Test
+    public void requestedPageIsNotLoadedTwice() {
+        mRequester.onScrubStarted();
+        mRequester.onTarget(0, WINDOW - 1);
+        mTimer.advanceTo(PageRequester.LOAD_DEBOUNCE_MS);
+        mRequester.onTarget(10, 10 + WINDOW - 1);
+        mRequester.onScrubEnded();
+
+        assertEquals(list(0), mDataSource.mLoaded);
+    }
+
+    private static List<Integer> list(int... pages) {
+        List<Integer> list = new ArrayList<>();
+        for (int page : pages) {
+            list.add(page);
+        }
+        return list;
+    }
+
+    private static final class RecordingDataSource implements PagedDataSource {
+
+        final List<Integer> mLoaded = new ArrayList<>();
+        final List<Integer> mCancelled = new ArrayList<>();
+        boolean mScrubbing = false;
+
+        @Override
+        public int getTotalCount() {
+            return 2_000_000 + WINDOW;
+        }
+
+        @Override
+        public int getPageSize() {
+            return PAGE_SIZE;
+        }
+
+        @Override
+        public void loadPage(int page) {
+            mLoaded.add(page);
+        }
+
+        @Override
+        public void cancelPageLoad(int page) {
+            mCancelled.add(page);
+        }
+
+        @Override
+        public void onScrubbingChanged(boolean scrubbing) {
+            mScrubbing = scrubbing;
+        }
+    }
+}
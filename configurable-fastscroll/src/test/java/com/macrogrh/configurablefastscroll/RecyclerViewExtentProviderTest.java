@@ -0,0 +1,67 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RecyclerViewExtentProviderTest {
+
+    private static final int RANGE = 10800;
+    private static final int EXTENT = 1080;
+
+    private final RecyclerViewExtentProvider mProvider =
+            new RecyclerViewExtentProvider(RecyclerView.HORIZONTAL);
+    private TestRecyclerView mRecyclerView;
+
+    @Before
+    public void setUp() {
+        mRecyclerView = new TestRecyclerView(ApplicationProvider.getApplicationContext());
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(mRecyclerView.getContext(),
+                RecyclerView.HORIZONTAL, false));
+        mRecyclerView.setAdapter(new FixedAdapter(108, 100));
+        mRecyclerView.mHorizontalRange = RANGE;
+        mRecyclerView.mHorizontalExtent = EXTENT;
+        mProvider.onAttachedToRecyclerView(mRecyclerView);
+    }
+
+    @Test
+    public void offsetIsFromLeftInLtr() {
+        mRecyclerView.mHorizontalOffset = 2000;
+
+        assertEquals(RANGE, mProvider.computeScrollRange());
+        assertEquals(2000, mProvider.computeScrollOffset());
+    }
+
+    @Test
+    public void offsetIsFromRightInRtl() {
+        mRecyclerView.mRtl = true;
+
+        // Scrolled to the start, which is the right end
+        mRecyclerView.mHorizontalOffset = RANGE - EXTENT;
+        assertEquals(0, mProvider.computeScrollOffset());
+
+        mRecyclerView.mHorizontalOffset = 2000;
+        assertEquals(RANGE - EXTENT - 2000, mProvider.computeScrollOffset());
+
+        mRecyclerView.mHorizontalOffset = 0;
+        assertEquals(RANGE - EXTENT, mProvider.computeScrollOffset());
+    }
+
+    @Test
+    public void positionsDoNotDependOnDirection() {
+        mRecyclerView.mRtl = true;
+
+        assertEquals(53, mProvider.getPositionForOffset(5356));
+        assertEquals(5300, mProvider.getOffsetForPosition(53));
+    }
+}
@@ -0,0 +1,69 @@
+package com.macrogrh.configurablefastscroll;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SampledKeyIndexTest {
+
+    @Test
+    public void findsFirstPositionWithKey() {
+        Random random = new Random(3);
+        final long[] keys = new long[5000];
+        for (int i = 1; i < keys.length; i++) {
+            // Runs of equal keys and gaps between them
+            keys[i] = keys[i - 1] + (random.nextInt(4) == 0 ? random.nextInt(10) : 0);
+        }
+        KeyExtractor extractor = new KeyExtractor() {
+            @Override
+            public long getKey(int position) {
+                return keys[position];
+            }
+        };
+        SampledKeyIndex index = SampledKeyIndex.create(extractor, keys.length);
+
+        for (long key = -1; key <= keys[keys.length - 1] + 1; key++) {
+            int expected = 0;
+            while (expected < keys.length - 1 && keys[expected] < key) {
+                expected++;
+            }
+            assertEquals("key " + key, expected, index.findPosition(key, extractor));
+        }
+    }
+
+    @Test
+    public void hugeAdapterReadsFewKeys() {
+        final int itemCount = 10000000;
+        final int[] reads = new int[1];
+        KeyExtractor extractor = new KeyExtractor() {
+            @Override
+            public long getKey(int position) {
+                reads[0]++;
+                return position * 3L;
+            }
+        };
+        SampledKeyIndex index = SampledKeyIndex.create(extractor, itemCount);
+        assertTrue(reads[0] <= SampledKeyIndex.MAX_SAMPLES);
+
+        reads[0] = 0;
+        assertEquals(2345679, index.findPosition(3L * 2345678 + 1, extractor));
+        assertTrue("read " + reads[0] + " keys", reads[0] <= 13);
+        assertEquals(itemCount - 1, index.findPosition(Long.MAX_VALUE, extractor));
+    }
+
+    @Test
+    public void emptyAdapterHasNoPosition() {
+        KeyExtractor extractor = new KeyExtractor() {
+            @Override
+            public long getKey(int position) {
+                throw new AssertionError();
+            }
+        };
+        SampledKeyIndex index = SampledKeyIndex.create(extractor, 0);
+
+        assertEquals(-1, index.findPosition(42, extractor));
+    }
+}
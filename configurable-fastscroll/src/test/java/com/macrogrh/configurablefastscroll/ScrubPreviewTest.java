@@ -0,0 +1,56 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.text.TextPaint;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ScrubPreviewTest {
+
+    private final Canvas mCanvas = new Canvas();
+    private final ColorDrawable mBackground = new ColorDrawable();
+    private int mQueries = 0;
+
+    private final ScrubPreview mPreview = new ScrubPreview(new ScrubPreviewProvider() {
+        @Override
+        public CharSequence getPreviewText(int position) {
+            mQueries++;
+            return position % 2 == 0 ? "Item " + position : null;
+        }
+    }, mBackground, new TextPaint(), 40, 8);
+
+    @Test
+    public void labelsAreQueriedOncePerPosition() {
+        for (int i = 0; i < 3; i++) {
+            mPreview.draw(mCanvas, 4, 500, 200, 1000);
+            mPreview.draw(mCanvas, 6, 500, 200, 1000);
+        }
+        assertEquals(2, mQueries);
+
+        mPreview.clear();
+        mPreview.draw(mCanvas, 4, 500, 200, 1000);
+        assertEquals(3, mQueries);
+    }
+
+    @Test
+    public void missingLabelIsCachedAndNotDrawn() {
+        mPreview.draw(mCanvas, 3, 500, 200, 1000);
+        mPreview.draw(mCanvas, 3, 500, 200, 1000);
+        assertEquals(1, mQueries);
+        assertTrue(mBackground.getBounds().isEmpty());
+
+        mPreview.draw(mCanvas, 2, 500, 200, 1000);
+        Rect bounds = mBackground.getBounds();
+        assertEquals(500 - 8, bounds.right);
+    }
+}
@@ -0,0 +1,69 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SectionBubbleTest {
+
+    private static final int MINIMUM_SIZE = 40;
+    private static final int MARGIN = 8;
+    private static final int THUMB_LEFT = 500;
+    private static final int VIEW_HEIGHT = 1000;
+
+    private final Canvas mCanvas = new Canvas();
+    private final ColorDrawable mBackground = new ColorDrawable();
+    private final Layout mLabel = new StaticLayout("A", new TextPaint(), 10,
+            Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+
+    @Test
+    public void bubbleIsCenteredOnThumb() {
+        SectionBubble.drawBubble(mCanvas, mBackground, mLabel, MINIMUM_SIZE, MARGIN, THUMB_LEFT,
+                500, VIEW_HEIGHT);
+
+        Rect bounds = mBackground.getBounds();
+        assertEquals(THUMB_LEFT - MARGIN, bounds.right);
+        assertTrue(bounds.width() >= MINIMUM_SIZE);
+        assertTrue(bounds.height() >= MINIMUM_SIZE);
+        assertEquals(500, bounds.centerY(), 1);
+    }
+
+    @Test
+    public void bubbleIsClampedToTop() {
+        SectionBubble.drawBubble(mCanvas, mBackground, mLabel, MINIMUM_SIZE, MARGIN, THUMB_LEFT,
+                5, VIEW_HEIGHT);
+
+        assertEquals(0, mBackground.getBounds().top);
+    }
+
+    @Test
+    public void bubbleIsClampedToBottom() {
+        SectionBubble.drawBubble(mCanvas, mBackground, mLabel, MINIMUM_SIZE, MARGIN, THUMB_LEFT,
+                VIEW_HEIGHT - 5, VIEW_HEIGHT);
+
+        assertEquals(VIEW_HEIGHT, mBackground.getBounds().bottom);
+    }
+
+    @Test
+    public void nothingIsDrawnBeforeIndexIsBuilt() {
+        SectionBubble bubble = new SectionBubble(null, mBackground, new TextPaint(),
+                MINIMUM_SIZE, MARGIN);
+
+        bubble.draw(mCanvas, 0, THUMB_LEFT, 500, VIEW_HEIGHT);
+
+        assertTrue(mBackground.getBounds().isEmpty());
+    }
+}
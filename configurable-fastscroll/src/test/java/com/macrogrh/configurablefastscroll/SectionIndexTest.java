@@ -0,0 +1,95 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.text.TextPaint;
+import android.widget.SectionIndexer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SectionIndexTest {
+
+    private int mQueries = 0;
+
+    // B is empty and D starts before C, so only A, C and E own positions.
+    private final SectionIndexer mIndexer = new SectionIndexer() {
+        private final String[] mSections = {"A", "B", "C", "D", "E"};
+        private final int[] mStarts = {2, 5, 5, 3, 10};
+
+        @Override
+        public Object[] getSections() {
+            return mSections;
+        }
+
+        @Override
+        public int getPositionForSection(int sectionIndex) {
+            mQueries++;
+            return mStarts[sectionIndex];
+        }
+
+        @Override
+        public int getSectionForPosition(int position) {
+            throw new AssertionError("lookups must not reach the adapter");
+        }
+    };
+
+    @Test
+    public void positionsMapToOwningSection() {
+        SectionIndex index = SectionIndex.create(mIndexer, new TextPaint());
+
+        assertEquals(3, index.getSectionCount());
+        assertEquals(-1, index.getSectionForPosition(0));
+        assertEquals(0, index.getSectionForPosition(2));
+        assertEquals(0, index.getSectionForPosition(4));
+        assertEquals(1, index.getSectionForPosition(5));
+        assertEquals(1, index.getSectionForPosition(9));
+        assertEquals(2, index.getSectionForPosition(10));
+        assertEquals(2, index.getSectionForPosition(Integer.MAX_VALUE));
+        assertEquals("A", index.getLabel(0).getText().toString());
+        assertEquals("C", index.getLabel(1).getText().toString());
+        assertEquals("E", index.getLabel(2).getText().toString());
+    }
+
+    @Test
+    public void labelsAreLaidOutOnce() {
+        SectionIndex index = SectionIndex.create(mIndexer, new TextPaint());
+        assertEquals(5, mQueries);
+
+        for (int position = 0; position < 20; position++) {
+            int section = index.getSectionForPosition(position);
+            if (section >= 0) {
+                assertSame(index.getLabel(section), index.getLabel(section));
+            }
+        }
+        assertEquals(5, mQueries);
+    }
+
+    @Test
+    public void noSectionsIsEmpty() {
+        SectionIndex index = SectionIndex.create(new SectionIndexer() {
+            @Override
+            public Object[] getSections() {
+                return null;
+            }
+
+            @Override
+            public int getPositionForSection(int sectionIndex) {
+                return 0;
+            }
+
+            @Override
+            public int getSectionForPosition(int position) {
+                return 0;
+            }
+        }, new TextPaint());
+
+        assertSame(SectionIndex.EMPTY, index);
+        assertEquals(-1, index.getSectionForPosition(0));
+    }
+}
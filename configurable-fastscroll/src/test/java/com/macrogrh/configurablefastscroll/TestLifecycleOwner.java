@@ -0,0 +1,20 @@
+package com.macrogrh.configurablefastscroll;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+/**
+ * Lifecycle owner whose events the test sends by hand.
+ */
+final class TestLifecycleOwner implements LifecycleOwner {
+
+    final LifecycleRegistry mRegistry = new LifecycleRegistry(this);
+
+    @NonNull
+    @Override
+    public Lifecycle getLifecycle() {
+        return mRegistry;
+    }
+}
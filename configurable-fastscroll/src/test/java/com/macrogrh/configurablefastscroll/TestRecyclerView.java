@@ -0,0 +1,49 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * RecyclerView with a settable layout direction and horizontal scroll state, recording the
+ * distance it is asked to scroll instead of scrolling.
+ */
+final class TestRecyclerView extends RecyclerView {
+
+    boolean mRtl = false;
+    int mHorizontalRange = 0;
+    int mHorizontalExtent = 0;
+    // Measured from the left edge, as RecyclerView reports it in either direction
+    int mHorizontalOffset = 0;
+    int mScrolledX = 0;
+
+    TestRecyclerView(Context context) {
+        super(context);
+    }
+
+    @Override
+    public int getLayoutDirection() {
+        return mRtl ? ViewCompat.LAYOUT_DIRECTION_RTL : ViewCompat.LAYOUT_DIRECTION_LTR;
+    }
+
+    @Override
+    public int computeHorizontalScrollRange() {
+        return mHorizontalRange;
+    }
+
+    @Override
+    public int computeHorizontalScrollExtent() {
+        return mHorizontalExtent;
+    }
+
+    @Override
+    public int computeHorizontalScrollOffset() {
+        return mHorizontalOffset;
+    }
+
+    @Override
+    public void scrollBy(int x, int y) {
+        mScrolledX += x;
+    }
+}
@@ -0,0 +1,85 @@
+package com.macrogrh.configurablefastscroll;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ThumbOverlayTest {
+
+    private FrameLayout mHost;
+    private ThumbOverlay mOverlay;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mHost = new FrameLayout(context);
+        mOverlay = new ThumbOverlay(context, new ColorDrawable());
+        mOverlay.attach(mHost);
+    }
+
+    @Test
+    public void startsHidden() {
+        assertNotNull(mOverlay.mThumbView.getParent());
+        assertEquals(View.INVISIBLE, mOverlay.mThumbView.getVisibility());
+        assertEquals(0, mOverlay.mThumbView.getAlpha(), 0);
+    }
+
+    @Test
+    public void updatePlacesThumbByTranslation() {
+        mOverlay.update(true, new Rect(1060, 300, 1080, 400));
+
+        View thumb = mOverlay.mThumbView;
+        assertEquals(View.VISIBLE, thumb.getVisibility());
+        assertEquals(20, thumb.getWidth());
+        assertEquals(100, thumb.getHeight());
+        assertEquals(1060, thumb.getTranslationX(), 0);
+        assertEquals(300, thumb.getTranslationY(), 0);
+
+        // Moving only translates; the view keeps its layout.
+        mOverlay.update(true, new Rect(1060, 700, 1080, 800));
+        assertEquals(0, thumb.getTop());
+        assertEquals(700, thumb.getTranslationY(), 0);
+    }
+
+    @Test
+    public void updateHidesThumb() {
+        mOverlay.update(true, new Rect(1060, 300, 1080, 400));
+
+        mOverlay.update(false, new Rect());
+
+        assertEquals(View.INVISIBLE, mOverlay.mThumbView.getVisibility());
+        // The last placement is kept for when the thumb shows again.
+        assertEquals(300, mOverlay.mThumbView.getTranslationY(), 0);
+    }
+
+    @Test
+    public void resetAndDetachHideThumb() {
+        mOverlay.update(true, new Rect(1060, 300, 1080, 400));
+        mOverlay.mThumbView.setAlpha(1);
+
+        mOverlay.reset();
+        assertEquals(View.INVISIBLE, mOverlay.mThumbView.getVisibility());
+        assertEquals(0, mOverlay.mThumbView.getAlpha(), 0);
+
+        mOverlay.update(true, new Rect(1060, 300, 1080, 400));
+        mOverlay.detach();
+        assertEquals(View.INVISIBLE, mOverlay.mThumbView.getVisibility());
+        assertNull(mOverlay.mThumbView.getParent());
+    }
+}
@@ -0,0 +1,54 @@
+package com.macrogrh.configurablefastscroll;
+
+import static org.junit.Assert.assertNull;
+
+/**
+ * Manually advanced clock for {@link DeadlineScheduler}. Holds at most one callback, which is all
+ * a scheduler ever posts.
+ */
+final class VirtualTimer implements DeadlineScheduler.Timer {
+
+    private long mNow = 0;
+    private Runnable mPending;
+    private long mPendingAt;
+    int mPostCount = 0;
+    int mRemoveCount = 0;
+
+    @Override
+    public long uptimeMillis() {
+        return mNow;
+    }
+
+    @Override
+    public void postAtTime(Runnable runnable, long uptimeMillis) {
+        assertNull("more than one callback posted", mPending);
+        mPending = runnable;
+        mPendingAt = uptimeMillis;
+        mPostCount++;
+    }
+
+    @Override
+    public void removeCallbacks(Runnable runnable) {
+        if (mPending == runnable) {
+            mPending = null;
+        }
+        mRemoveCount++;
+    }
+
+    boolean hasPending() {
+        return mPending != null;
+    }
+
+    /**
+     * Runs the pending callback, and any it posts, as the clock passes their time.
+     */
+    void advanceTo(long time) {
+        while (mPending != null && mPendingAt <= time) {
+            mNow = mPendingAt;
+            Runnable runnable = mPending;
+            mPending = null;
+            runnable.run();
+        }
+        mNow = time;
+    }
+}
@@ -0,0 +1,78 @@
+package com.macrogrh.configurablefastscroll.benchmark;
+
+import com.macrogrh.configurablefastscroll.geometry.ThumbGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the per-frame thumb math for lists from 10 to 100M items. Inputs are generated up
+ * front and walked in order so every invocation sees a different value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThumbGeometryBenchmark {
+
+    private static final int ITEM_EXTENT = 100;
+    private static final int VIEW_THICKNESS = 1080;
+    private static final int VIEW_LENGTH = 1920;
+    private static final int SAMPLES = 4096;
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int itemCount;
+
+    private ThumbGeometry mGeometry;
+    private long mScrollRange;
+    private final long[] mOffsets = new long[SAMPLES];
+    private final float[] mPointers = new float[SAMPLES];
+    private final float[] mTouches = new float[SAMPLES];
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new ThumbGeometry(144f, 24, 16, 8, 96);
+        mGeometry.setViewSize(VIEW_THICKNESS, VIEW_LENGTH);
+        mScrollRange = Math.max(VIEW_LENGTH + 1L, (long) itemCount * ITEM_EXTENT);
+
+        Random random = new Random(itemCount);
+        long maxOffset = mScrollRange - VIEW_LENGTH;
+        for (int i = 0; i < SAMPLES; i++) {
+            mOffsets[i] = (long) (random.nextDouble() * maxOffset);
+            mPointers[i] = random.nextFloat() * VIEW_LENGTH;
+            mTouches[i] = VIEW_THICKNESS - random.nextFloat() * 200;
+        }
+    }
+
+    private int next() {
+        return mIndex = (mIndex + 1) & (SAMPLES - 1);
+    }
+
+    @Benchmark
+    public int offsetToThumb() {
+        return mGeometry.computeThumbCenter(mOffsets[next()], mScrollRange);
+    }
+
+    @Benchmark
+    public long thumbToOffset() {
+        int i = next();
+        float center = mGeometry.computeThumbCenterForPointer(mPointers[i], 0f);
+        return mGeometry.computeScrollOffset(center, mScrollRange);
+    }
+
+    @Benchmark
+    public boolean hitTest() {
+        int i = next();
+        int center = mGeometry.computeThumbCenter(mOffsets[i], mScrollRange);
+        return mGeometry.isInsideThumb(mTouches[i], mPointers[i], center);
+    }
+}
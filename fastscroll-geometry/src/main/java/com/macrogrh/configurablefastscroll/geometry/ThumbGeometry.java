@@ -0,0 +1,184 @@
+package com.macrogrh.configurablefastscroll.geometry;
+
+/**
+ * Thumb and track math of a fast scroller along one axis. It holds no Android types, so the
+ * per-frame mapping between scroll offsets and thumb positions can be tested and benchmarked on
+ * a plain JVM.
+ * <p>
+ * Lengths run along the scroll axis and thicknesses across it. The track spans the view length
+ * minus {@code trackMargin} at both ends; the thumb sits {@code endMargin} away from the far edge
+ * of the cross axis.
+ */
+public final class ThumbGeometry {
+
+    private final float mThumbLength;
+    private final int mThumbThickness;
+    private final int mTrackMargin;
+    private final int mEndMargin;
+    private final int mMinimumTouchTarget;
+
+    private int mViewThickness;
+    private int mViewLength;
+
+    /**
+     * @param thumbLength        the length the thumb is drawn at unless the view is shorter.
+     * @param thumbThickness     the thickness of the thumb.
+     * @param trackMargin        the margin between each end of the view and the track.
+     * @param endMargin          the margin between the thumb and the far edge of the view.
+     * @param minimumTouchTarget the smallest extent, along either axis, that touches hit.
+     */
+    public ThumbGeometry(float thumbLength, int thumbThickness, int trackMargin, int endMargin,
+                         int minimumTouchTarget) {
+        mThumbLength = thumbLength;
+        mThumbThickness = thumbThickness;
+        mTrackMargin = trackMargin;
+        mEndMargin = endMargin;
+        mMinimumTouchTarget = minimumTouchTarget;
+    }
+
+    public void setViewSize(int viewThickness, int viewLength) {
+        mViewThickness = viewThickness;
+        mViewLength = viewLength;
+    }
+
+    public int getViewLength() {
+        return mViewLength;
+    }
+
+    public int getViewThickness() {
+        return mViewThickness;
+    }
+
+    public int getThumbThickness() {
+        return mThumbThickness;
+    }
+
+    /**
+     * @return the length of the thumb, which never exceeds the view.
+     */
+    public int getThumbLength() {
+        return (int) Math.min(mViewLength, mThumbLength);
+    }
+
+    public int getTrackStart() {
+        return mTrackMargin;
+    }
+
+    public int getTrackEnd() {
+        return mViewLength - mTrackMargin;
+    }
+
+    /**
+     * @return how far the thumb can move along the track; zero or less if it cannot.
+     */
+    public int getThumbTravel() {
+        return getTrackEnd() - getTrackStart() - getThumbLength();
+    }
+
+    /**
+     * @return the cross-axis coordinate of the thumb's near edge.
+     */
+    public int getThumbCrossStart() {
+        return mViewThickness - mThumbThickness - mEndMargin;
+    }
+
+    /**
+     * @return the center of the thumb for a list scrolled to {@code scrollOffset} out of
+     * {@code scrollRange}, clamped to the track. A cached range can lag behind a fresh offset,
+     * e.g. while a fling passes items of varying extent.
+     */
+    public int computeThumbCenter(long scrollOffset, long scrollRange) {
+        long scrollable = scrollRange - mViewLength;
+        float ratio = scrollable <= 0
+                ? 0 : Math.max(0f, Math.min(1f, scrollOffset / (float) scrollable));
+        return (int) ((int) (ratio * (mViewLength - mThumbLength - (2 * mTrackMargin)))
+                + mThumbLength / 2 + mTrackMargin);
+    }
+
+    /**
+     * @return the center of a thumb dragged by a pointer at {@code pointer} that grabbed it
+     * {@code grabOffset} away from its center, clamped to the track; or -1 if the track leaves
+     * the thumb no room to move.
+     */
+    public float computeThumbCenterForPointer(float pointer, float grabOffset) {
+        float thumbTravel = getThumbTravel();
+        if (thumbTravel <= 0) {
+            return -1;
+        }
+        float minCenter = getTrackStart() + getThumbLength() / 2f;
+        return Math.max(minCenter, Math.min(minCenter + thumbTravel, pointer - grabOffset));
+    }
+
+    /**
+     * @return the scroll offset that puts the thumb's center at {@code thumbCenter}, the inverse
+     * of {@link #computeThumbCenterForPointer}.
+     */
+    public long computeScrollOffset(float thumbCenter, long scrollRange) {
+        float thumbTravel = getThumbTravel();
+        if (thumbTravel <= 0) {
+            return 0;
+        }
+        float minCenter = getTrackStart() + getThumbLength() / 2f;
+        float ratio = (thumbCenter - minCenter) / thumbTravel;
+        return Math.max(0, Math.round(ratio * (double) (scrollRange - mViewLength)));
+    }
+
+    /**
+     * @return how far to scroll the list when the pointer dragging the thumb moves from
+     * {@code oldPointer} to {@code newPointer}.
+     */
+    public int computeDragScrollDelta(float oldPointer, float newPointer, long scrollRange,
+                                      long scrollOffset) {
+        return computeScrollDelta(oldPointer, newPointer, getTrackEnd() - getTrackStart(),
+                scrollRange, scrollOffset, mViewLength - getThumbLength());
+    }
+
+    /**
+     * Scales a pointer move along a track of {@code trackLength} to the scrollable distance of
+     * the list, clamping the move that would pass the end.
+     */
+    public static int computeScrollDelta(float oldPointer, float newPointer, int trackLength,
+                                         long scrollRange, long scrollOffset, int viewLength) {
+        if (trackLength == 0) {
+            return 0;
+        }
+        float percentage = ((newPointer - oldPointer) / (float) trackLength);
+        long totalPossibleOffset = scrollRange - viewLength;
+        int scrollingBy = (int) (percentage * totalPossibleOffset);
+        long absoluteOffset = scrollOffset + scrollingBy;
+        if (absoluteOffset < totalPossibleOffset) {
+            return scrollingBy;
+        } else {
+            // Clamp instead of dropping the move, so the last drag still reaches the end.
+            return (int) Math.max(0, totalPossibleOffset - scrollOffset);
+        }
+    }
+
+    /**
+     * @return whether a touch at ({@code cross}, {@code along}) hits a thumb centered at
+     * {@code thumbCenter}. Thumbs smaller than the minimum touch target are hit within that
+     * target instead.
+     */
+    public boolean isInsideThumb(float cross, float along, int thumbCenter) {
+        int thumbLength = getThumbLength();
+        boolean insideAlong;
+        if (thumbLength >= mMinimumTouchTarget) {
+            insideAlong = along >= thumbCenter - thumbLength / 2
+                    && along <= thumbCenter + thumbLength / 2;
+        } else {
+            insideAlong = along >= thumbCenter - mMinimumTouchTarget / 2
+                    && along <= thumbCenter + mMinimumTouchTarget / 2;
+        }
+
+        if (mThumbThickness >= mMinimumTouchTarget) {
+            return cross >= mViewThickness - mThumbThickness - mEndMargin
+                    && cross <= mViewThickness - mEndMargin
+                    && insideAlong;
+        } else {
+            int slack = (mMinimumTouchTarget - mThumbThickness) / 2;
+            return cross >= mViewThickness - mMinimumTouchTarget - mEndMargin + slack
+                    && cross <= mViewThickness - mEndMargin + slack
+                    && insideAlong;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.macrogrh.configurablefastscroll.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ThumbGeometryTest {
+
+    private static final int VIEW_THICKNESS = 400;
+    private static final int VIEW_LENGTH = 1000;
+
+    private static ThumbGeometry newGeometry() {
+        ThumbGeometry geometry = new ThumbGeometry(100f, 20, 10, 5, 48);
+        geometry.setViewSize(VIEW_THICKNESS, VIEW_LENGTH);
+        return geometry;
+    }
+
+    @Test
+    public void thumbCenterSpansTrack() {
+        ThumbGeometry geometry = newGeometry();
+        long range = 100000;
+
+        assertEquals(60, geometry.computeThumbCenter(0, range));
+        assertEquals(940, geometry.computeThumbCenter(range - VIEW_LENGTH, range));
+    }
+
+    @Test
+    public void thumbCenterStaysOnTrack() {
+        ThumbGeometry geometry = newGeometry();
+        long range = 100000;
+
+        assertEquals(940, geometry.computeThumbCenter(2 * range, range));
+        assertEquals(60, geometry.computeThumbCenter(-100, range));
+        assertEquals(60, geometry.computeThumbCenter(0, VIEW_LENGTH));
+    }
+
+    @Test
+    public void scrollOffsetInvertsThumbCenter() {
+        ThumbGeometry geometry = newGeometry();
+        long range = 100L * 100000000;
+
+        for (long offset = 0; offset < range - VIEW_LENGTH; offset += range / 37) {
+            int center = geometry.computeThumbCenter(offset, range);
+            long roundTrip = geometry.computeScrollOffset(center, range);
+            // One pixel of thumb travel covers (range - view) / travel of content.
+            assertEquals(offset, roundTrip, (range - VIEW_LENGTH) / 780.0 * 2);
+        }
+    }
+
+    @Test
+    public void pointerIsClampedToTrack() {
+        ThumbGeometry geometry = newGeometry();
+
+        assertEquals(60f, geometry.computeThumbCenterForPointer(-500f, 0f), 0f);
+        assertEquals(940f, geometry.computeThumbCenterForPointer(5000f, 0f), 0f);
+        assertEquals(500f, geometry.computeThumbCenterForPointer(520f, 20f), 0f);
+    }
+
+    @Test
+    public void noTravelWhenThumbFillsTrack() {
+        ThumbGeometry geometry = new ThumbGeometry(100f, 20, 10, 5, 48);
+        geometry.setViewSize(VIEW_THICKNESS, 110);
+
+        assertEquals(-1f, geometry.computeThumbCenterForPointer(50f, 0f), 0f);
+        assertEquals(0, geometry.computeScrollOffset(50f, 100000));
+    }
+
+    @Test
+    public void dragDeltaClampsAtEnd() {
+        ThumbGeometry geometry = newGeometry();
+        long range = 10000;
+
+        assertEquals(910, geometry.computeDragScrollDelta(100f, 198f, range, 0));
+        assertEquals(100, geometry.computeDragScrollDelta(100f, 900f, range, range - 1000));
+    }
+
+    @Test
+    public void smallThumbIsHitWithinTouchTarget() {
+        ThumbGeometry geometry = newGeometry();
+        int center = 500;
+
+        assertTrue(geometry.isInsideThumb(380f, 500f, center));
+        assertTrue(geometry.isInsideThumb(380f, 549f, center));
+        assertFalse(geometry.isInsideThumb(380f, 560f, center));
+        assertFalse(geometry.isInsideThumb(300f, 500f, center));
+    }
+}
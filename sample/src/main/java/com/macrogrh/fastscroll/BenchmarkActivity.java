@@ -0,0 +1,193 @@
+package com.macrogrh.fastscroll;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.Window;
+import android.widget.TextView;
+
+import androidx.annotation.RequiresApi;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.macrogrh.configurablefastscroll.ConfigurableFastScroll;
+
+import java.util.List;
+
+/**
+ * Runs the scripted drags of a {@link BenchmarkHarness} over a {@link SyntheticAdapter} and shows
+ * the per-drag report, which is also logged under {@value #TAG}. Frame durations come from
+ * FrameMetrics on API 24 and up, and from the interval between frames before that.
+ */
+public class BenchmarkActivity extends AppCompatActivity {
+
+    private static final String TAG = "FastScrollBenchmark";
+    // Idle frames before the first drag, so startup work is not measured
+    private static final int WARM_UP_FRAMES = 30;
+
+    private BenchmarkConfig mConfig;
+    private RecyclerView mRecyclerView;
+    private SyntheticAdapter mAdapter;
+    private CountingLayoutManager mLayoutManager;
+    private TextView mReportView;
+    private final StringBuilder mReport = new StringBuilder();
+
+    private BenchmarkHarness mHarness;
+    private FrameMetricsRecorder mFrameMetricsRecorder;
+    private int mWarmUpFrames = 0;
+    private long mLastFrameTimeNanos = 0;
+    private boolean mRunning = false;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mWarmUpFrames > 0) {
+                mWarmUpFrames--;
+                Choreographer.getInstance().postFrameCallback(this);
+                return;
+            }
+            if (mFrameMetricsRecorder == null && mLastFrameTimeNanos != 0) {
+                mHarness.onFrameMetrics(frameTimeNanos - mLastFrameTimeNanos);
+            }
+            mLastFrameTimeNanos = frameTimeNanos;
+            if (mHarness.step()) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                stop();
+            }
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_benchmark);
+
+        mConfig = BenchmarkConfig.fromIntent(getIntent());
+        mRecyclerView = (RecyclerView) findViewById(R.id.recyclerView);
+        mReportView = (TextView) findViewById(R.id.report);
+
+        mLayoutManager = new CountingLayoutManager(this);
+        mAdapter = new SyntheticAdapter(mConfig,
+                getResources().getDimensionPixelSize(R.dimen.benchmark_row_height));
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(mAdapter);
+
+        ConfigurableFastScroll.Builder builder = new ConfigurableFastScroll.Builder(mRecyclerView)
+                .setLifecycleOwner(this);
+        if (mConfig.hasVariableHeights()) {
+            builder.setMeasuredItemExtent(R.dimen.benchmark_row_height);
+        } else {
+            builder.setFixedItemExtent(R.dimen.benchmark_row_height);
+        }
+        if (!BenchmarkConfig.MODE_SCROLL_BY.equals(mConfig.getMode())) {
+            builder.setDragMode(ConfigurableFastScroll.DRAG_MODE_JUMP);
+        }
+        if (BenchmarkConfig.MODE_JUMP_OVERLAY.equals(mConfig.getMode())) {
+            builder.setThumbOverlay(true);
+        }
+        builder.build();
+
+        mReport.append(mConfig).append('\n');
+        mReportView.setText(mReport);
+        getSupportActionBar().setTitle("Benchmark");
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (mHarness == null) {
+            // The thumb is grabbed from the laid out list.
+            mRecyclerView.post(new Runnable() {
+                @Override
+                public void run() {
+                    start();
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (mRunning) {
+            stop();
+            mReport.append("interrupted\n");
+            mReportView.setText(mReport);
+        }
+    }
+
+    private void start() {
+        if (isFinishing() || mHarness != null) {
+            return;
+        }
+        float refreshRate = getWindowManager().getDefaultDisplay().getRefreshRate();
+        mHarness = new BenchmarkHarness(mRecyclerView, mAdapter, mLayoutManager, mConfig,
+                mRecyclerView.getWidth() - dp(8), dp(24),
+                (long) (1e9 / (refreshRate > 0 ? refreshRate : 60)),
+                new BenchmarkHarness.Listener() {
+                    @Override
+                    public void onDragFinished(BenchmarkHarness.DragReport report) {
+                        Log.i(TAG, mConfig + ": " + report);
+                        mReport.append(report).append('\n');
+                        mReportView.setText(mReport);
+                    }
+
+                    @Override
+                    public void onFinished(List<BenchmarkHarness.DragReport> reports) {
+                        Log.i(TAG, mConfig + ": done");
+                    }
+                });
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            mFrameMetricsRecorder = new FrameMetricsRecorder(mHarness);
+            mFrameMetricsRecorder.attach(getWindow());
+        }
+        mWarmUpFrames = WARM_UP_FRAMES;
+        mRunning = true;
+        Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+
+    private void stop() {
+        mRunning = false;
+        Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        if (mFrameMetricsRecorder != null) {
+            mFrameMetricsRecorder.detach(getWindow());
+            mFrameMetricsRecorder = null;
+        }
+    }
+
+    private float dp(int dp) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp,
+                getResources().getDisplayMetrics());
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N)
+    private static class FrameMetricsRecorder implements Window.OnFrameMetricsAvailableListener {
+
+        private final BenchmarkHarness mHarness;
+
+        FrameMetricsRecorder(BenchmarkHarness harness) {
+            mHarness = harness;
+        }
+
+        void attach(Window window) {
+            // Delivered on the main thread, so the harness needs no locking.
+            window.addOnFrameMetricsAvailableListener(this, new Handler(Looper.getMainLooper()));
+        }
+
+        void detach(Window window) {
+            window.removeOnFrameMetricsAvailableListener(this);
+        }
+
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics,
+                                            int dropCountSinceLastInvocation) {
+            mHarness.onFrameMetrics(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.macrogrh.fastscroll;
+
+import android.content.Intent;
+
+/**
+ * Workload of a {@link BenchmarkActivity} run, read from the launching intent so runs can be
+ * scripted, e.g.
+ * <pre>
+ * adb shell am start -n com.macrogrh.fastscroll/.BenchmarkActivity \
+ *     --ei item_count 10000000 --ez variable_heights true --eia bind_cost_us 50,400 \
+ *     --es mode jump
+ * </pre>
+ */
+public class BenchmarkConfig {
+
+    public static final String EXTRA_ITEM_COUNT = "item_count";
+    public static final String EXTRA_VARIABLE_HEIGHTS = "variable_heights";
+    public static final String EXTRA_BIND_COST_US = "bind_cost_us";
+    public static final String EXTRA_MODE = "mode";
+    public static final String EXTRA_DRAG_COUNT = "drag_count";
+    public static final String EXTRA_DRAG_FRAMES = "drag_frames";
+
+    public static final String MODE_SCROLL_BY = "scroll_by";
+    public static final String MODE_JUMP = "jump";
+    public static final String MODE_JUMP_OVERLAY = "jump_overlay";
+
+    public static final int MAX_ITEM_COUNT = 10000000;
+
+    private final int itemCount;
+    private final boolean variableHeights;
+    private final int[] bindCostMicros;
+    private final String mode;
+    private final int dragCount;
+    private final int dragFrames;
+
+    public BenchmarkConfig(int itemCount, boolean variableHeights, int[] bindCostMicros,
+                           String mode, int dragCount, int dragFrames) {
+        this.itemCount = Math.max(0, Math.min(MAX_ITEM_COUNT, itemCount));
+        this.variableHeights = variableHeights;
+        this.bindCostMicros = bindCostMicros.length > 0 ? bindCostMicros : new int[]{0};
+        this.mode = mode;
+        this.dragCount = Math.max(1, dragCount);
+        this.dragFrames = Math.max(2, dragFrames);
+    }
+
+    public static BenchmarkConfig fromIntent(Intent intent) {
+        int[] bindCost = intent.getIntArrayExtra(EXTRA_BIND_COST_US);
+        String mode = intent.getStringExtra(EXTRA_MODE);
+        return new BenchmarkConfig(
+                intent.getIntExtra(EXTRA_ITEM_COUNT, 1000000),
+                intent.getBooleanExtra(EXTRA_VARIABLE_HEIGHTS, true),
+                bindCost != null ? bindCost : new int[]{100, 400},
+                mode != null ? mode : MODE_JUMP,
+                intent.getIntExtra(EXTRA_DRAG_COUNT, 5),
+                intent.getIntExtra(EXTRA_DRAG_FRAMES, 120));
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public boolean hasVariableHeights() {
+        return variableHeights;
+    }
+
+    /**
+     * Busy time spent binding a row, one entry per view type.
+     */
+    public int[] getBindCostMicros() {
+        return bindCostMicros;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getDragCount() {
+        return dragCount;
+    }
+
+    /**
+     * Frames each scripted drag takes from the top of the track to the bottom and back.
+     */
+    public int getDragFrames() {
+        return dragFrames;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder costs = new StringBuilder();
+        for (int i = 0; i < bindCostMicros.length; i++) {
+            if (i > 0) {
+                costs.append(',');
+            }
+            costs.append(bindCostMicros[i]);
+        }
+        return mode + ", " + itemCount + " items, "
+                + (variableHeights ? "variable" : "fixed") + " heights, bind " + costs + " us";
+    }
+}
@@ -0,0 +1,184 @@
+package com.macrogrh.fastscroll;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays scripted thumb drags on a RecyclerView, one step per frame. Each drag returns the list
+ * to the top, grabs the thumb, sweeps it to the bottom of the track and back and lets go; frame
+ * durations, binds, view creations and layout passes are reported per drag.
+ * <p>
+ * The harness does not schedule anything itself: the caller calls {@link #step()} once per frame
+ * and feeds frame durations to {@link #onFrameMetrics(long)}.
+ */
+public class BenchmarkHarness {
+
+    public interface Listener {
+
+        void onDragFinished(DragReport report);
+
+        void onFinished(List<DragReport> reports);
+    }
+
+    public static class DragReport {
+        public final int drag;
+        public final int frames;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+        public final float jankPercent;
+        public final int binds;
+        public final int creates;
+        public final int layouts;
+
+        DragReport(int drag, FrameStats stats, long frameBudgetNanos, int binds, int creates,
+                   int layouts) {
+            this.drag = drag;
+            this.frames = stats.getCount();
+            this.p50Nanos = stats.getPercentile(50);
+            this.p90Nanos = stats.getPercentile(90);
+            this.p99Nanos = stats.getPercentile(99);
+            this.jankPercent = stats.getJankPercent(frameBudgetNanos);
+            this.binds = binds;
+            this.creates = creates;
+            this.layouts = layouts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "drag %d: %d frames, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, jank %.1f%%, "
+                            + "%d binds, %d creates, %d layouts",
+                    drag, frames, p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, jankPercent,
+                    binds, creates, layouts);
+        }
+    }
+
+    // Steps before the drag: back to the top, then a one pixel nudge so the thumb shows.
+    private static final int PREPARE_STEPS = 2;
+
+    private final RecyclerView mRecyclerView;
+    private final SyntheticAdapter mAdapter;
+    private final CountingLayoutManager mLayoutManager;
+    private final int mDragCount;
+    private final int mDragFrames;
+    private final float mThumbX;
+    private final float mThumbY;
+    private final long mFrameBudgetNanos;
+    private final Listener mListener;
+
+    private final FrameStats mFrameStats = new FrameStats();
+    private final ArrayList<DragReport> mReports = new ArrayList<>();
+    private int mDrag = 0;
+    private int mStep = 0;
+    private long mDownTime;
+    private int mEventCount = 0;
+
+    /**
+     * @param thumbX           where the thumb is grabbed, in the RecyclerView's coordinates.
+     * @param thumbY           where the thumb is grabbed while the list is at the top.
+     * @param frameBudgetNanos frames taking longer than this count as jank.
+     */
+    public BenchmarkHarness(RecyclerView recyclerView, SyntheticAdapter adapter,
+                            CountingLayoutManager layoutManager, BenchmarkConfig config,
+                            float thumbX, float thumbY, long frameBudgetNanos,
+                            Listener listener) {
+        mRecyclerView = recyclerView;
+        mAdapter = adapter;
+        mLayoutManager = layoutManager;
+        mDragCount = config.getDragCount();
+        mDragFrames = config.getDragFrames();
+        mThumbX = thumbX;
+        mThumbY = thumbY;
+        mFrameBudgetNanos = frameBudgetNanos;
+        mListener = listener;
+    }
+
+    /**
+     * @return true from the thumb being grabbed until it is released.
+     */
+    public boolean isDragging() {
+        return mDrag < mDragCount && mStep > PREPARE_STEPS;
+    }
+
+    public void onFrameMetrics(long totalDurationNanos) {
+        if (isDragging()) {
+            mFrameStats.add(totalDurationNanos);
+        }
+    }
+
+    /**
+     * Touch events dispatched so far.
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * Advances the script by one frame.
+     *
+     * @return false once every drag has finished.
+     */
+    public boolean step() {
+        if (mDrag >= mDragCount) {
+            return false;
+        }
+        if (mStep == 0) {
+            mRecyclerView.scrollToPosition(0);
+        } else if (mStep == 1) {
+            mRecyclerView.scrollBy(0, 1);
+        } else if (mStep == PREPARE_STEPS) {
+            mAdapter.resetCounts();
+            mLayoutManager.resetLayoutCount();
+            mFrameStats.reset();
+            mDownTime = SystemClock.uptimeMillis();
+            dispatch(MotionEvent.ACTION_DOWN, mThumbY);
+        } else if (mStep <= PREPARE_STEPS + mDragFrames) {
+            dispatch(MotionEvent.ACTION_MOVE, getPointerY(mStep - PREPARE_STEPS));
+        } else {
+            dispatch(MotionEvent.ACTION_UP, mThumbY);
+            finishDrag();
+            return mDrag < mDragCount;
+        }
+        mStep++;
+        return true;
+    }
+
+    /**
+     * @return the pointer position {@code frame} frames into the drag: down the track during the
+     * first half, back up during the second.
+     */
+    float getPointerY(int frame) {
+        float bottom = mRecyclerView.getHeight() - mThumbY;
+        float half = mDragFrames / 2f;
+        float progress = frame <= half ? frame / half : (mDragFrames - frame) / half;
+        return mThumbY + Math.max(0, progress) * (bottom - mThumbY);
+    }
+
+    private void dispatch(int action, float y) {
+        MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action,
+                mThumbX, y, 0);
+        mRecyclerView.dispatchTouchEvent(event);
+        event.recycle();
+        mEventCount++;
+    }
+
+    private void finishDrag() {
+        DragReport report = new DragReport(mDrag, mFrameStats, mFrameBudgetNanos,
+                mAdapter.getBindCount(), mAdapter.getCreateCount(),
+                mLayoutManager.getLayoutCount());
+        mReports.add(report);
+        mDrag++;
+        mStep = 0;
+        mListener.onDragFinished(report);
+        if (mDrag == mDragCount) {
+            mListener.onFinished(mReports);
+        }
+    }
+}
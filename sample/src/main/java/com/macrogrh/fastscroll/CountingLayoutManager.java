@@ -0,0 +1,32 @@
+package com.macrogrh.fastscroll;
+
+import android.content.Context;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * LinearLayoutManager that counts its layout passes.
+ */
+public class CountingLayoutManager extends LinearLayoutManager {
+
+    private int mLayoutCount = 0;
+
+    public CountingLayoutManager(Context context) {
+        super(context);
+    }
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        mLayoutCount++;
+        super.onLayoutChildren(recycler, state);
+    }
+
+    public int getLayoutCount() {
+        return mLayoutCount;
+    }
+
+    public void resetLayoutCount() {
+        mLayoutCount = 0;
+    }
+}
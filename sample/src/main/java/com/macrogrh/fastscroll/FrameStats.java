@@ -0,0 +1,59 @@
+package com.macrogrh.fastscroll;
+
+import java.util.Arrays;
+
+/**
+ * Frame durations of one drag, with nearest-rank percentiles and the share of frames that missed
+ * their deadline.
+ */
+public class FrameStats {
+
+    private long[] mDurations = new long[256];
+    private int mCount = 0;
+
+    public void add(long durationNanos) {
+        if (mCount == mDurations.length) {
+            mDurations = Arrays.copyOf(mDurations, mCount * 2);
+        }
+        mDurations[mCount++] = durationNanos;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the smallest duration that at least {@code percentile}% of the frames do not
+     * exceed, or 0 without frames.
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(mDurations, mCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * mCount);
+        return sorted[Math.max(0, Math.min(mCount - 1, rank - 1))];
+    }
+
+    /**
+     * @return the percentage of frames longer than {@code budgetNanos}.
+     */
+    public float getJankPercent(long budgetNanos) {
+        if (mCount == 0) {
+            return 0;
+        }
+        int janky = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (mDurations[i] > budgetNanos) {
+                janky++;
+            }
+        }
+        return janky * 100f / mCount;
+    }
+
+    public void reset() {
+        mCount = 0;
+    }
+}
@@ -26,14 +26,14 @@ public class Item {
         ArrayList<Item> items = new ArrayList<Item>();
 
         for (int i = 1; i <= numContacts; i++) {
-            String body = "";
+            StringBuilder body = new StringBuilder();
             if( !fixedHeight ) {
                 int bodyCountRandom = Math.abs(random.nextInt(10));
                 for (int j = 1; j <= bodyCountRandom; j++) {
-                    body += j + "\n";
+                    body.append(j).append('\n');
                 }
             }
-            items.add(new Item("Item " + ++count, body));
+            items.add(new Item("Item " + ++count, body.toString()));
         }
 
         return items;
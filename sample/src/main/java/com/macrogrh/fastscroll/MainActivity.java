@@ -38,6 +38,14 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
+        findViewById(R.id.button_benchmark).setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                Intent intent = new Intent(MainActivity.this, BenchmarkActivity.class);
+                startActivity(intent);
+            }
+        });
+
         getSupportActionBar().setTitle("Sample");
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.macrogrh.fastscroll;
+
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Adapter over any number of rows without backing objects. Row heights and view types derive
+ * from the position, and every bind spins for the configured cost of its view type, so the same
+ * workload can be replayed against each scroller mode.
+ */
+public class SyntheticAdapter extends RecyclerView.Adapter<SyntheticAdapter.ViewHolder> {
+
+    private final int mItemCount;
+    private final boolean mVariableHeights;
+    private final int[] mBindCostMicros;
+    private final int mRowHeight;
+
+    private int mBindCount = 0;
+    private int mCreateCount = 0;
+
+    public SyntheticAdapter(BenchmarkConfig config, int rowHeight) {
+        mItemCount = config.getItemCount();
+        mVariableHeights = config.hasVariableHeights();
+        mBindCostMicros = config.getBindCostMicros();
+        mRowHeight = rowHeight;
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        public TextView textView;
+
+        public ViewHolder(TextView itemView) {
+            super(itemView);
+            textView = itemView;
+        }
+    }
+
+    /**
+     * @return how many row heights the row at {@code position} spans, from 1 to 4.
+     */
+    public static int getHeightFactor(int position) {
+        int hash = position * 0x9E3779B1;
+        return 1 + ((hash >>> 16) & 3);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return position % mBindCostMicros.length;
+    }
+
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        mCreateCount++;
+        TextView textView = new TextView(parent.getContext());
+        textView.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, mRowHeight));
+        return new ViewHolder(textView);
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder viewHolder, int position) {
+        mBindCount++;
+        int height = mVariableHeights ? mRowHeight * getHeightFactor(position) : mRowHeight;
+        ViewGroup.LayoutParams params = viewHolder.textView.getLayoutParams();
+        if (params.height != height) {
+            params.height = height;
+            viewHolder.textView.setLayoutParams(params);
+        }
+        viewHolder.textView.setText("Item " + position);
+        spin(mBindCostMicros[viewHolder.getItemViewType()]);
+    }
+
+    @Override
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    public int getBindCount() {
+        return mBindCount;
+    }
+
+    public int getCreateCount() {
+        return mCreateCount;
+    }
+
+    public void resetCounts() {
+        mBindCount = 0;
+        mCreateCount = 0;
+    }
+
+    private static void spin(int micros) {
+        if (micros <= 0) {
+            return;
+        }
+        long end = System.nanoTime() + micros * 1000L;
+        while (System.nanoTime() < end) {
+            // Stands in for inflating, text layout and image decoding.
+        }
+    }
+}
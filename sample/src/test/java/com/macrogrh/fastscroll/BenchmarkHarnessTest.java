@@ -0,0 +1,107 @@
+package com.macrogrh.fastscroll;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class BenchmarkHarnessTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ROW_HEIGHT = 100;
+    private static final int DRAG_FRAMES = 10;
+    private static final float THUMB_Y = 60;
+
+    private final ArrayList<BenchmarkHarness.DragReport> mDragReports = new ArrayList<>();
+    private List<BenchmarkHarness.DragReport> mFinalReports;
+    private BenchmarkHarness mHarness;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        BenchmarkConfig config = new BenchmarkConfig(BenchmarkConfig.MAX_ITEM_COUNT * 2, true,
+                new int[]{0, 0}, BenchmarkConfig.MODE_JUMP, 2, DRAG_FRAMES);
+        RecyclerView recyclerView = new RecyclerView(context);
+        CountingLayoutManager layoutManager = new CountingLayoutManager(context);
+        SyntheticAdapter adapter = new SyntheticAdapter(config, ROW_HEIGHT);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+
+        mHarness = new BenchmarkHarness(recyclerView, adapter, layoutManager, config,
+                WIDTH - 10, THUMB_Y, 16000000L, new BenchmarkHarness.Listener() {
+                    @Override
+                    public void onDragFinished(BenchmarkHarness.DragReport report) {
+                        mDragReports.add(report);
+                    }
+
+                    @Override
+                    public void onFinished(List<BenchmarkHarness.DragReport> reports) {
+                        mFinalReports = reports;
+                    }
+                });
+    }
+
+    @Test
+    public void runsEveryDragOnce() {
+        int steps = 1;
+        while (mHarness.step()) {
+            steps++;
+        }
+
+        // Two preparing steps, down, the moves and up, per drag
+        assertEquals(2 * (DRAG_FRAMES + 4), steps);
+        assertEquals(2 * (DRAG_FRAMES + 2), mHarness.getEventCount());
+        assertEquals(2, mDragReports.size());
+        assertEquals(mDragReports, mFinalReports);
+        assertFalse(mHarness.step());
+    }
+
+    @Test
+    public void framesAreOnlyCountedWhileDragging() {
+        mHarness.step();
+        mHarness.step();
+        mHarness.onFrameMetrics(50000000L);
+        assertFalse(mHarness.isDragging());
+
+        mHarness.step();
+        assertTrue(mHarness.isDragging());
+        mHarness.onFrameMetrics(10000000L);
+        mHarness.onFrameMetrics(20000000L);
+        while (mDragReports.isEmpty()) {
+            mHarness.step();
+        }
+
+        BenchmarkHarness.DragReport report = mDragReports.get(0);
+        assertEquals(2, report.frames);
+        assertEquals(20000000L, report.p99Nanos);
+        assertEquals(50f, report.jankPercent, 0f);
+    }
+
+    @Test
+    public void pointerSweepsDownAndBack() {
+        assertEquals(THUMB_Y, mHarness.getPointerY(0), 0f);
+        assertEquals(HEIGHT - THUMB_Y, mHarness.getPointerY(DRAG_FRAMES / 2), 0f);
+        assertEquals(THUMB_Y, mHarness.getPointerY(DRAG_FRAMES), 0f);
+    }
+}
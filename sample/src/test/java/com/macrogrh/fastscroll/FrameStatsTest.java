@@ -0,0 +1,45 @@
+package com.macrogrh.fastscroll;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameStatsTest {
+
+    @Test
+    public void percentilesUseNearestRank() {
+        FrameStats stats = new FrameStats();
+        // 1..1000 ms, added out of order
+        for (int i = 1000; i >= 1; i--) {
+            stats.add(i * 1000000L);
+        }
+
+        assertEquals(1000, stats.getCount());
+        assertEquals(500000000L, stats.getPercentile(50));
+        assertEquals(900000000L, stats.getPercentile(90));
+        assertEquals(990000000L, stats.getPercentile(99));
+        assertEquals(1000000000L, stats.getPercentile(100));
+        assertEquals(1000000L, stats.getPercentile(0));
+    }
+
+    @Test
+    public void jankCountsFramesOverBudget() {
+        FrameStats stats = new FrameStats();
+        stats.add(8000000L);
+        stats.add(16000000L);
+        stats.add(17000000L);
+        stats.add(40000000L);
+
+        assertEquals(50f, stats.getJankPercent(16000000L), 0f);
+    }
+
+    @Test
+    public void emptyStatsReportZero() {
+        FrameStats stats = new FrameStats();
+        stats.add(1);
+        stats.reset();
+
+        assertEquals(0, stats.getPercentile(50));
+        assertEquals(0f, stats.getJankPercent(1), 0f);
+    }
+}